@@ -1,7 +1,12 @@
 package com.mcallzbl.commonaliyunoss.config;
 
+import com.aliyun.sts20150401.Client;
+import com.aliyun.teaopenapi.models.Config;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 
 /**
@@ -16,4 +21,19 @@ public class AliyunOssAutoConfiguration {
     public AliyunOssAutoConfiguration() {
         log.info("阿里云对象存储模块注册完毕");
     }
+
+    /**
+     * 注册共享的STS客户端，避免每次获取凭证都重新创建
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public Client stsClient(@Value("${aliyun.oss.accessKeyId:}") String accessKeyId,
+                            @Value("${aliyun.oss.accessKeySecret:}") String accessKeySecret,
+                            @Value("${aliyun.sts.region:cn-beijing}") String region) throws Exception {
+        Config config = new Config()
+                .setAccessKeyId(accessKeyId)
+                .setAccessKeySecret(accessKeySecret)
+                .setRegionId(region);
+        return new Client(config);
+    }
 }
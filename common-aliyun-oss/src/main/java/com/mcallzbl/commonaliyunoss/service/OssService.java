@@ -1,9 +1,6 @@
 package com.mcallzbl.commonaliyunoss.service;
 
-import com.aliyun.sts20150401.Client;
-import com.aliyun.sts20150401.models.AssumeRoleRequest;
-import com.aliyun.sts20150401.models.AssumeRoleResponse;
-import com.aliyun.teaopenapi.models.Config;
+import com.aliyun.sts20150401.models.AssumeRoleResponseBody.AssumeRoleResponseBodyCredentials;
 import com.mcallzbl.common.BusinessException;
 import com.mcallzbl.commonaliyunoss.OssUploadAuthResponse;
 import com.mcallzbl.user.context.UserContext;
@@ -39,18 +36,12 @@ public class OssService {
     private static final long MAX_VIDEO_SIZE = 500L * 1024 * 1024; // 500MB
     private static final long MAX_DOCUMENT_SIZE = 50L * 1024 * 1024; // 50MB
     private static final long MAX_AUDIO_SIZE = 100L * 1024 * 1024;  // 100MB
-    @Value("${aliyun.oss.accessKeyId:}")
-    private String accessKeyId;
-    @Value("${aliyun.oss.accessKeySecret:}")
-    private String accessKeySecret;
+    private final StsCredentialCache stsCredentialCache;
+
     @Value("${aliyun.oss.endpoint:https://oss-cn-beijing.aliyuncs.com}")
     private String ossEndpoint;
     @Value("${aliyun.oss.bucket:common-bucket}")
     private String ossBucket;
-    @Value("${aliyun.sts.roleArn:}")
-    private String roleArn;
-    @Value("${aliyun.sts.region:cn-beijing}")
-    private String region;
     @Value("${aliyun.oss.uploadPath:uploads}")
     private String uploadPath;
 
@@ -71,17 +62,17 @@ public class OssService {
             String fileUrl = String.format("https://%s.%s/%s", ossBucket, ossEndpoint.substring(8), ossKey);
 
             // 3. 获取STS临时凭证
-            AssumeRoleResponse stsResponse = getStsCredentials();
+            AssumeRoleResponseBodyCredentials credentials = getStsCredentials();
 
             // 4. 获取文件大小限制
             Long maxFileSize = getMaxFileSize(fileType);
 
             // 5. 构建响应
             return OssUploadAuthResponse.builder()
-                    .accessKeyId(stsResponse.getBody().getCredentials().getAccessKeyId())
-                    .accessKeySecret(stsResponse.getBody().getCredentials().getAccessKeySecret())
-                    .securityToken(stsResponse.getBody().getCredentials().getSecurityToken())
-                    .expiration(stsResponse.getBody().getCredentials().getExpiration())
+                    .accessKeyId(credentials.getAccessKeyId())
+                    .accessKeySecret(credentials.getAccessKeySecret())
+                    .securityToken(credentials.getSecurityToken())
+                    .expiration(credentials.getExpiration())
                     .bucket(ossBucket)
                     .endpoint(ossEndpoint)
                     .ossKey(ossKey)
@@ -105,13 +96,13 @@ public class OssService {
      */
     public OssUploadAuthResponse generateStsToken() {
         try {
-            AssumeRoleResponse stsResponse = getStsCredentials();
+            AssumeRoleResponseBodyCredentials credentials = getStsCredentials();
 
             return OssUploadAuthResponse.builder()
-                    .accessKeyId(stsResponse.getBody().getCredentials().getAccessKeyId())
-                    .accessKeySecret(stsResponse.getBody().getCredentials().getAccessKeySecret())
-                    .securityToken(stsResponse.getBody().getCredentials().getSecurityToken())
-                    .expiration(stsResponse.getBody().getCredentials().getExpiration())
+                    .accessKeyId(credentials.getAccessKeyId())
+                    .accessKeySecret(credentials.getAccessKeySecret())
+                    .securityToken(credentials.getSecurityToken())
+                    .expiration(credentials.getExpiration())
                     .bucket(ossBucket)
                     .endpoint(ossEndpoint)
                     .sessionName("oss-token-" + UserContext.getCurrentUserId())
@@ -125,21 +116,11 @@ public class OssService {
 
     /**
      * 获取STS临时凭证
+     * 按用户会话缓存，有效期内直接从内存返回
      */
-    private AssumeRoleResponse getStsCredentials() throws Exception {
-        Config config = new Config()
-                .setAccessKeyId(accessKeyId)
-                .setAccessKeySecret(accessKeySecret)
-                .setRegionId(region);
-
-        Client client = new Client(config);
-
-        AssumeRoleRequest assumeRoleRequest = new AssumeRoleRequest()
-                .setRoleArn(roleArn)
-                .setRoleSessionName("oss-upload-" + UserContext.getCurrentUserId())
-                .setDurationSeconds(3600L); // 1小时有效期
-
-        return client.assumeRole(assumeRoleRequest);
+    private AssumeRoleResponseBodyCredentials getStsCredentials() throws Exception {
+        return stsCredentialCache.get(
+                new StsCredentialCache.StsScope("oss-upload-" + UserContext.getCurrentUserId(), null));
     }
 
     /**
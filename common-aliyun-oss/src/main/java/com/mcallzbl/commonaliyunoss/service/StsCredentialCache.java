@@ -0,0 +1,236 @@
+package com.mcallzbl.commonaliyunoss.service;
+
+import com.aliyun.sts20150401.Client;
+import com.aliyun.sts20150401.models.AssumeRoleRequest;
+import com.aliyun.sts20150401.models.AssumeRoleResponseBody.AssumeRoleResponseBodyCredentials;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * STS临时凭证缓存
+ * 按会话名称和会话策略缓存AssumeRole的结果，凭证有效期内直接从内存返回：
+ * <ul>
+ *     <li>并发的缓存未命中合并为一次AssumeRole调用，其他请求等待同一个结果</li>
+ *     <li>剩余有效期低于提前刷新时间时，后台异步刷新，刷新完成前继续返回当前凭证</li>
+ *     <li>剩余有效期低于最短可用时间时视为过期，同步重新获取</li>
+ *     <li>条目数超过上限时先清理过期条目，仍超出时按签发时间淘汰最早的条目，一次清理到上限的九成</li>
+ * </ul>
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Component
+public class StsCredentialCache implements DisposableBean {
+
+    /**
+     * 缓存条目上限
+     */
+    private static final int MAX_ENTRIES = 10_000;
+    /**
+     * 超过上限时清理到的条目数，留出余量，避免每次未命中都遍历整个缓存
+     */
+    private static final int TRIM_TO = MAX_ENTRIES * 9 / 10;
+
+    private final Client stsClient;
+    private final Map<StsScope, CompletableFuture<CachedCredentials>> cache = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sts-credential-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${aliyun.sts.roleArn:}")
+    private String roleArn;
+    @Value("${aliyun.sts.durationSeconds:3600}")
+    private long durationSeconds;
+    @Value("${aliyun.sts.refreshAheadSeconds:600}")
+    private long refreshAheadSeconds;
+    @Value("${aliyun.sts.minRemainingSeconds:300}")
+    private long minRemainingSeconds;
+
+    public StsCredentialCache(Client stsClient) {
+        this.stsClient = stsClient;
+    }
+
+    /**
+     * 获取指定范围的STS临时凭证
+     *
+     * @param scope 会话范围
+     * @return 临时凭证
+     * @throws Exception AssumeRole调用失败
+     */
+    public AssumeRoleResponseBodyCredentials get(StsScope scope) throws Exception {
+        CompletableFuture<CachedCredentials> future = cache.get(scope);
+        if (future == null) {
+            future = load(scope, null);
+        }
+        CachedCredentials cached = await(future);
+        Instant now = Instant.now();
+        if (now.isBefore(cached.usableUntil())) {
+            if (!now.isBefore(cached.refreshAt())) {
+                refreshAsync(scope, future, cached);
+            }
+            return cached.credentials();
+        }
+        // 已经过期，替换为新的加载任务，并发请求等待同一个任务
+        return await(load(scope, future)).credentials();
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 放入一个新的加载任务并在当前线程执行AssumeRole；已有其他线程在加载时直接返回它的任务
+     *
+     * @param expired 需要替换的过期任务，为null表示缓存中还没有该范围
+     */
+    private CompletableFuture<CachedCredentials> load(StsScope scope,
+                                                      @Nullable CompletableFuture<CachedCredentials> expired) {
+        CompletableFuture<CachedCredentials> created = new CompletableFuture<>();
+        while (true) {
+            if (expired == null) {
+                CompletableFuture<CachedCredentials> existing = cache.putIfAbsent(scope, created);
+                if (existing != null) {
+                    return existing;
+                }
+            } else if (!cache.replace(scope, expired, created)) {
+                CompletableFuture<CachedCredentials> existing = cache.get(scope);
+                if (existing == null) {
+                    expired = null;
+                    continue;
+                }
+                return existing;
+            }
+            break;
+        }
+        trimIfFull();
+        try {
+            created.complete(assumeRole(scope));
+        } catch (Exception e) {
+            // 失败的任务不留在缓存中，下一次请求重新获取
+            cache.remove(scope, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * 后台刷新，同一份凭证只触发一次；刷新失败时保留当前凭证，下一次请求再尝试
+     */
+    private void refreshAsync(StsScope scope, CompletableFuture<CachedCredentials> current, CachedCredentials cached) {
+        if (!cached.refreshing().compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                cache.replace(scope, current, CompletableFuture.completedFuture(assumeRole(scope)));
+                log.debug("STS临时凭证已刷新: {}", scope.sessionName());
+            } catch (Exception e) {
+                log.warn("刷新STS临时凭证失败，继续使用当前凭证: {} - {}", scope.sessionName(), e.getMessage());
+                cached.refreshing().set(false);
+            }
+        });
+    }
+
+    private CachedCredentials assumeRole(StsScope scope) throws Exception {
+        AssumeRoleRequest request = new AssumeRoleRequest()
+                .setRoleArn(roleArn)
+                .setRoleSessionName(scope.sessionName())
+                .setDurationSeconds(durationSeconds);
+        if (scope.policy() != null) {
+            request.setPolicy(scope.policy());
+        }
+        AssumeRoleResponseBodyCredentials credentials = stsClient.assumeRole(request).getBody().getCredentials();
+        Instant expiration = Instant.parse(credentials.getExpiration());
+        return new CachedCredentials(credentials,
+                expiration.minus(Duration.ofSeconds(refreshAheadSeconds)),
+                expiration.minus(Duration.ofSeconds(minRemainingSeconds)),
+                new AtomicBoolean());
+    }
+
+    /**
+     * 超过上限时清理缓存，同一时间只有一个线程执行清理；正在加载的条目不清理
+     */
+    private void trimIfFull() {
+        if (cache.size() <= MAX_ENTRIES || !trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            List<Map.Entry<StsScope, CompletableFuture<CachedCredentials>>> live = new ArrayList<>();
+            for (Map.Entry<StsScope, CompletableFuture<CachedCredentials>> entry : cache.entrySet()) {
+                CompletableFuture<CachedCredentials> future = entry.getValue();
+                if (!future.isDone()) {
+                    continue;
+                }
+                if (future.isCompletedExceptionally() || !now.isBefore(future.join().usableUntil())) {
+                    cache.remove(entry.getKey(), future);
+                } else {
+                    live.add(Map.entry(entry.getKey(), future));
+                }
+            }
+            int excess = cache.size() - TRIM_TO;
+            if (excess > 0) {
+                // 有效期相同，最早到期的就是最早签发的
+                live.sort(Comparator.comparing(entry -> entry.getValue().join().usableUntil()));
+                for (int i = 0; i < excess && i < live.size(); i++) {
+                    cache.remove(live.get(i).getKey(), live.get(i).getValue());
+                }
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private static CachedCredentials await(CompletableFuture<CachedCredentials> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 凭证的缓存范围
+     *
+     * @param sessionName 角色会话名称
+     * @param policy      会话策略，为null时使用角色本身的权限
+     */
+    public record StsScope(String sessionName, @Nullable String policy) {
+    }
+
+    /**
+     * 缓存的凭证
+     *
+     * @param refreshAt   开始后台刷新的时间
+     * @param usableUntil 可以返回给客户端的最晚时间
+     * @param refreshing  是否正在后台刷新
+     */
+    private record CachedCredentials(AssumeRoleResponseBodyCredentials credentials, Instant refreshAt,
+                                     Instant usableUntil, AtomicBoolean refreshing) {
+    }
+}
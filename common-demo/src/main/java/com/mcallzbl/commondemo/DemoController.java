@@ -27,6 +27,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Demo控制器 - 展示公共模块的各种功能
@@ -162,6 +164,17 @@ public class DemoController {
         );
     }
 
+    /**
+     * 返回Stream - 逐个元素流式写出到data数组，不在内存中构建完整列表
+     * 请求头 Accept: application/x-ndjson 时每个元素输出一行
+     * GET /demo/users/stream
+     */
+    @GetMapping("/users/stream")
+    public Stream<User> streamUsers() {
+        return LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> User.builder().id(id).username("user" + id).email("user" + id + "@example.com").build());
+    }
+
     /**
      * 直接返回Result对象 - 会被转换为传输DTO
      * GET /demo/result
@@ -35,55 +35,54 @@ public class BusinessException extends RuntimeException {
      */
     private Object data;
 
-    public BusinessException(HttpStatus httpStatus, int code, String userFriendlyMessage) {
-        super(userFriendlyMessage);
+    /**
+     * 是否为预期内的业务异常，预期内的异常不采集调用栈
+     */
+    private boolean expected;
+
+    /**
+     * 创建业务异常（完整参数）
+     *
+     * @param expected 是否为预期内的业务结果（如密码错误），为true时跳过fillInStackTrace
+     */
+    public BusinessException(HttpStatus httpStatus, int code, String userFriendlyMessage, Throwable cause,
+                             Object data, boolean expected) {
+        super(userFriendlyMessage, cause, true, !expected);
         this.httpStatus = httpStatus;
         this.code = code;
         this.userFriendlyMessage = userFriendlyMessage;
+        this.data = data;
+        this.expected = expected;
+    }
+
+    public BusinessException(HttpStatus httpStatus, int code, String userFriendlyMessage) {
+        this(httpStatus, code, userFriendlyMessage, null, null, ResultCode.isExpected(code));
     }
 
     public BusinessException(HttpStatus httpStatus, int code, String userFriendlyMessage, Object data) {
-        super(userFriendlyMessage);
-        this.httpStatus = httpStatus;
-        this.code = code;
-        this.userFriendlyMessage = userFriendlyMessage;
-        this.data = data;
+        this(httpStatus, code, userFriendlyMessage, null, data, ResultCode.isExpected(code));
     }
 
     /**
      * 创建业务异常（HTTP状态码 + 错误码 + 消息 + 原因异常）
      */
     public BusinessException(HttpStatus httpStatus, int code, String userFriendlyMessage, Throwable cause) {
-        super(userFriendlyMessage, cause);
-        this.httpStatus = httpStatus;
-        this.code = code;
-        this.userFriendlyMessage = userFriendlyMessage;
+        this(httpStatus, code, userFriendlyMessage, cause, null, ResultCode.isExpected(code));
     }
 
     /**
      * 创建业务异常（HTTP状态码 + 错误码 + 消息 + 原因异常 + 数据）
      */
     public BusinessException(HttpStatus httpStatus, int code, String userFriendlyMessage, Throwable cause, Object data) {
-        super(userFriendlyMessage, cause);
-        this.httpStatus = httpStatus;
-        this.code = code;
-        this.userFriendlyMessage = userFriendlyMessage;
-        this.data = data;
+        this(httpStatus, code, userFriendlyMessage, cause, data, ResultCode.isExpected(code));
     }
 
     public BusinessException(HttpStatus httpStatus, ResultCode resultCode) {
-        super(resultCode.getMessage());
-        this.httpStatus = httpStatus;
-        this.code = resultCode.getCode();
-        this.userFriendlyMessage = resultCode.getMessage();
+        this(httpStatus, resultCode.getCode(), resultCode.getMessage(), null, null, resultCode.isExpected());
     }
 
     public BusinessException(HttpStatus httpStatus, ResultCode resultCode, Object data) {
-        super(resultCode.getMessage());
-        this.httpStatus = httpStatus;
-        this.code = resultCode.getCode();
-        this.userFriendlyMessage = resultCode.getMessage();
-        this.data = data;
+        this(httpStatus, resultCode.getCode(), resultCode.getMessage(), null, data, resultCode.isExpected());
     }
 
     public BusinessException(ResultCode resultCode) {
@@ -101,16 +100,21 @@ public class BusinessException extends RuntimeException {
      * 创建业务异常（自定义消息 + 原因异常，使用默认失败状态码）
      */
     public BusinessException(String message, Throwable cause) {
-        super(message, cause);
-        this.httpStatus = HttpStatus.OK;
-        this.code = ResultCode.FAILED.getCode();
-        this.userFriendlyMessage = message;
+        this(HttpStatus.OK, ResultCode.FAILED.getCode(), message, cause, null, false);
     }
 
     public BusinessException(ResultCode resultCode, Object data) {
         this(HttpStatus.OK, resultCode, data);
     }
 
+    /**
+     * 创建预期内的业务异常（仅自定义消息，使用默认失败状态码），不采集调用栈
+     * 用于密码错误等正常流程中的失败结果
+     */
+    public static BusinessException expected(String message) {
+        return new BusinessException(HttpStatus.OK, ResultCode.FAILED.getCode(), message, null, null, true);
+    }
+
     /**
      * 创建参数校验失败异常
      */
@@ -1,6 +1,7 @@
 package com.mcallzbl.common;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mcallzbl.common.util.CoarseClock;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
@@ -38,7 +39,7 @@ public class Result<T> {
         this.code = code;
         this.message = message;
         this.data = data;
-        timestamp = Instant.now();
+        timestamp = CoarseClock.now();
     }
 
     // ==================== 成功返回方法 ====================
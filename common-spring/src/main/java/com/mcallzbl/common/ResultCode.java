@@ -3,6 +3,11 @@ package com.mcallzbl.common;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * 统一状态码枚举
  */
@@ -64,7 +69,40 @@ public enum ResultCode {
     ORDER_NOT_FOUND(6005, "订单不存在", "order.not.found"),
     ORDER_STATUS_ERROR(6006, "订单状态错误", "order.status.error");
 
+    private static final Map<Integer, ResultCode> BY_CODE = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(ResultCode::getCode, Function.identity()));
+
     private final int code;
     private final String message;
     private final String messageKey;
+
+    /**
+     * 按业务状态码查找
+     *
+     * @param code 业务状态码
+     * @return 对应的枚举，未定义时返回null
+     */
+    public static ResultCode fromCode(int code) {
+        return BY_CODE.get(code);
+    }
+
+    /**
+     * 是否为预期内的业务结果（参数错误、认证失败、验证码错误、用户已存在等）
+     * 这类异常是正常流程的一部分，不采集调用栈，日志级别也更低
+     */
+    public boolean isExpected() {
+        return switch (this) {
+            case SUCCESS, FAILED, CAPTCHA_SEND_FAILED, TOKEN_REFRESH_FAILED, SYSTEM_BUSY,
+                 FILE_UPLOAD_FAILED, BUSINESS_ERROR, DATA_INCONSISTENT, OPERATION_TIMEOUT -> false;
+            default -> true;
+        };
+    }
+
+    /**
+     * 业务状态码是否属于预期内的业务结果，未定义的状态码视为非预期
+     */
+    public static boolean isExpected(int code) {
+        ResultCode resultCode = fromCode(code);
+        return resultCode != null && resultCode.isExpected();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.mcallzbl.common;
+
+/**
+ * 带版本信息的实体
+ * 实现该接口的响应数据可以直接由ID和版本计算ETag，见 {@link com.mcallzbl.common.annotation.ConditionalGet}
+ * <p>
+ * 版本必须在每次更新时都发生变化，例如乐观锁版本号或毫秒精度（DATETIME(3)）的更新时间。
+ * 秒级精度的DATETIME更新时间不能作为版本：同一秒内的两次更新得到相同的ETag，客户端会一直拿到304和旧数据
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public interface VersionedEntity {
+
+    /**
+     * 实体ID
+     */
+    Object getId();
+
+    /**
+     * 实体版本，为null时按序列化后的数据计算ETag
+     */
+    Object getVersion();
+}
@@ -0,0 +1,22 @@
+package com.mcallzbl.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 条件请求注解
+ * 标记在需要包装响应的Controller类或方法上，为GET/HEAD请求的响应计算弱ETag，
+ * 请求头If-None-Match命中时直接返回304，不再输出响应体。
+ * ETag只覆盖data，不包括本地化的message和每次请求的timestamp，响应同时带上 {@code Vary: Accept-Language}
+ * <ul>
+ *     <li>data实现了 {@link com.mcallzbl.common.VersionedEntity} 时，由实体ID和版本计算，无需序列化</li>
+ *     <li>否则由序列化后的data计算，序列化结果直接用于输出，不会重复序列化</li>
+ * </ul>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+}
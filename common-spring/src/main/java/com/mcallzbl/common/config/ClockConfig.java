@@ -0,0 +1,26 @@
+package com.mcallzbl.common.config;
+
+import com.mcallzbl.common.util.CoarseClock;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 时钟配置
+ * 控制响应时间戳和自动填充时间使用的 {@link CoarseClock} 精度
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@ConfigurationProperties(prefix = "common.clock")
+public class ClockConfig {
+
+    /**
+     * 时钟精度，默认1毫秒
+     * 设置为0时不缓存，每次都读取系统时钟（纳秒精度）
+     */
+    private Duration precision = CoarseClock.DEFAULT_PRECISION;
+}
@@ -1,45 +1,85 @@
 package com.mcallzbl.common.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcallzbl.common.exception.BusinessExceptionLogger;
 import com.mcallzbl.common.exception.GlobalExceptionHandler;
 import com.mcallzbl.common.exception.I18nBusinessException;
+import com.mcallzbl.common.interceptor.BinaryEnvelopeWriters;
 import com.mcallzbl.common.interceptor.GlobalResponseWrapper;
+import com.mcallzbl.common.interceptor.ResultEnvelopeHttpMessageConverter;
+import com.mcallzbl.common.interceptor.ResultEnvelopeWriter;
+import com.mcallzbl.common.reactive.ReactiveEnvelopeEncoder;
+import com.mcallzbl.common.reactive.ReactiveExceptionHandler;
+import com.mcallzbl.common.reactive.ReactiveResponseWrapper;
 import com.mcallzbl.common.util.CommonI18nUtils;
+import com.mcallzbl.common.util.ResultCodeMessages;
+import com.mcallzbl.common.util.TimestampSource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.NonNull;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.i18n.LocaleContextResolver;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * 公共模块自动配置类
- * 自动注册响应包装器和异常处理器
+ * 自动注册响应包装器和异常处理器，Spring MVC和WebFlux分别注册各自的实现
  */
 @Configuration
 @Slf4j
 @ConditionalOnWebApplication
+@AutoConfigureBefore(name = "org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration")
+@EnableConfigurationProperties({ClockConfig.class, StreamingConfig.class, ExceptionLogConfig.class})
 public class CommonAutoConfiguration {
 
     /**
-     * 注册全局响应包装器
+     * 注册响应时间戳来源，并按配置设置粗粒度时钟的精度，刷新线程在此时才启动。
+     * 不注册为 {@link java.time.Clock} 类型，避免与应用自己的Clock Bean冲突
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TimestampSource timestampSource(ClockConfig clockConfig) {
+        log.info("注册粗粒度时钟，精度: {}", clockConfig.getPrecision());
+        return new TimestampSource(clockConfig.getPrecision());
+    }
+
+    /**
+     * 注册统一响应信封写出器
      */
     @Bean
     @ConditionalOnMissingBean
-    public GlobalResponseWrapper globalResponseWrapper(ObjectMapper objectMapper) {
-        log.info("注册全局响应包装器");
-        return new GlobalResponseWrapper(objectMapper);
+    public ResultEnvelopeWriter resultEnvelopeWriter(ObjectMapper objectMapper, ResultCodeMessages resultCodeMessages) {
+        return new ResultEnvelopeWriter(objectMapper, resultCodeMessages);
     }
 
     /**
-     * 注册全局异常处理器
+     * 注册业务异常日志记录器，Servlet和WebFlux的异常处理器共用
      */
     @Bean
     @ConditionalOnMissingBean
-    public GlobalExceptionHandler globalExceptionHandler() {
-        log.info("注册全局异常处理器");
-        return new GlobalExceptionHandler();
+    public BusinessExceptionLogger businessExceptionLogger(ExceptionLogConfig exceptionLogConfig) {
+        return new BusinessExceptionLogger(exceptionLogConfig);
     }
 
     // ==================== 国际化配置自动注册 ====================
@@ -55,17 +95,6 @@ public class CommonAutoConfiguration {
         return config.messageSource();
     }
 
-    /**
-     * 注册LocaleResolver Bean（用于解析请求语言）
-     */
-    @Bean
-    @ConditionalOnMissingBean(name = "localeResolver")
-    public org.springframework.web.servlet.LocaleResolver localeResolver() {
-        log.info("注册LocaleResolver Bean（语言解析器）");
-        LocaleConfig config = new LocaleConfig();
-        return config.localeResolver();
-    }
-
     /**
      * 注册LocalValidatorFactoryBean Bean（用于JSR-303验证国际化）
      */
@@ -87,14 +116,24 @@ public class CommonAutoConfiguration {
         return new CommonI18nUtils(messageSource);
     }
 
+    /**
+     * 注册状态码消息表，支持的语言缺少翻译时启动失败
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ResultCodeMessages resultCodeMessages(MessageSource messageSource) {
+        return new ResultCodeMessages(messageSource);
+    }
+
     /**
      * 注册I18nBusinessException Bean（国际化异常处理器）
      */
     @Bean
     @ConditionalOnMissingBean
-    public I18nBusinessException i18nBusinessException(CommonI18nUtils commonI18NUtils) {
+    public I18nBusinessException i18nBusinessException(CommonI18nUtils commonI18NUtils,
+                                                       ResultCodeMessages resultCodeMessages) {
         log.info("注册I18nBusinessException Bean（国际化异常处理器）");
-        return new I18nBusinessException(commonI18NUtils);
+        return new I18nBusinessException(commonI18NUtils, resultCodeMessages);
     }
 
     /**
@@ -106,4 +145,136 @@ public class CommonAutoConfiguration {
         log.info("注册InstantAutoFillHandler");
         return new InstantAutoFillHandler();
     }
-}
\ No newline at end of file
+
+    // ==================== Spring MVC ====================
+
+    /**
+     * Spring MVC（Servlet）下的响应包装、异常处理和语言解析
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(name = "org.springframework.web.servlet.DispatcherServlet")
+    static class ServletConfiguration {
+
+        /**
+         * 注册全局响应包装器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public GlobalResponseWrapper globalResponseWrapper(ObjectMapper objectMapper,
+                                                           ResultEnvelopeWriter resultEnvelopeWriter) {
+            log.info("注册全局响应包装器");
+            return new GlobalResponseWrapper(objectMapper, resultEnvelopeWriter);
+        }
+
+        /**
+         * 注册统一响应信封消息转换器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ResultEnvelopeHttpMessageConverter resultEnvelopeHttpMessageConverter(
+                ObjectMapper objectMapper, ResultEnvelopeWriter resultEnvelopeWriter,
+                GlobalResponseWrapper globalResponseWrapper, StreamingConfig streamingConfig) {
+            Map<MediaType, ResultEnvelopeWriter> binaryWriters = BinaryEnvelopeWriters.create(objectMapper);
+            log.info("注册统一响应信封消息转换器，二进制格式: {}", binaryWriters.keySet());
+            return new ResultEnvelopeHttpMessageConverter(resultEnvelopeWriter, binaryWriters,
+                    globalResponseWrapper, streamingConfig.getFlushEvery());
+        }
+
+        /**
+         * 只注册到Spring MVC并放在最前面，保证优先于Jackson和String转换器被选中，
+         * 不通过HttpMessageConverters注册，避免影响RestTemplate等客户端
+         */
+        @Bean
+        public WebMvcConfigurer resultEnvelopeConverterConfigurer(ResultEnvelopeHttpMessageConverter converter) {
+            return new WebMvcConfigurer() {
+                @Override
+                public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+                    converters.add(0, converter);
+                }
+            };
+        }
+
+        /**
+         * 注册全局异常处理器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public GlobalExceptionHandler globalExceptionHandler(BusinessExceptionLogger businessExceptionLogger,
+                                                             ResultCodeMessages resultCodeMessages) {
+            log.info("注册全局异常处理器");
+            return new GlobalExceptionHandler(businessExceptionLogger, resultCodeMessages);
+        }
+
+        /**
+         * 注册LocaleResolver Bean（用于解析请求语言）
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "localeResolver")
+        public LocaleResolver localeResolver(ObjectProvider<LanguagePreferenceProvider> preferenceProviders) {
+            log.info("注册LocaleResolver Bean（语言解析器）");
+            LocaleConfig config = new LocaleConfig();
+            return config.localeResolver(preferenceProviders);
+        }
+    }
+
+    // ==================== Spring WebFlux ====================
+
+    /**
+     * Spring WebFlux（Reactive）下的响应包装、异常处理和语言解析，
+     * 沿用相同的 {@code @ResponseWrapper}/{@code @NoResponseWrapper} 注解
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = "org.springframework.web.reactive.DispatcherHandler")
+    static class ReactiveConfiguration {
+
+        /**
+         * 注册WebFlux统一响应信封编码器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveEnvelopeEncoder reactiveEnvelopeEncoder(ResultEnvelopeWriter resultEnvelopeWriter) {
+            return new ReactiveEnvelopeEncoder(resultEnvelopeWriter);
+        }
+
+        /**
+         * 注册WebFlux全局响应包装器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveResponseWrapper reactiveResponseWrapper(
+                ReactiveEnvelopeEncoder reactiveEnvelopeEncoder,
+                ServerCodecConfigurer serverCodecConfigurer,
+                @Qualifier("webFluxContentTypeResolver") RequestedContentTypeResolver contentTypeResolver,
+                @Qualifier("webFluxAdapterRegistry") ReactiveAdapterRegistry adapterRegistry) {
+            log.info("注册WebFlux全局响应包装器");
+            return new ReactiveResponseWrapper(reactiveEnvelopeEncoder, serverCodecConfigurer.getWriters(),
+                    contentTypeResolver, adapterRegistry);
+        }
+
+        /**
+         * 注册WebFlux全局异常处理器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveExceptionHandler reactiveExceptionHandler(ReactiveEnvelopeEncoder reactiveEnvelopeEncoder,
+                                                                 BusinessExceptionLogger businessExceptionLogger) {
+            log.info("注册WebFlux全局异常处理器");
+            return new ReactiveExceptionHandler(reactiveEnvelopeEncoder, businessExceptionLogger);
+        }
+
+        /**
+         * 注册LocaleContextResolver Bean（基于Accept-Language解析请求语言）
+         */
+        @Bean(WebHttpHandlerBuilder.LOCALE_CONTEXT_RESOLVER_BEAN_NAME)
+        @ConditionalOnMissingBean(name = WebHttpHandlerBuilder.LOCALE_CONTEXT_RESOLVER_BEAN_NAME)
+        public LocaleContextResolver localeContextResolver() {
+            log.info("注册LocaleContextResolver Bean（语言解析器）");
+            AcceptHeaderLocaleContextResolver resolver = new AcceptHeaderLocaleContextResolver();
+            resolver.setDefaultLocale(Locale.SIMPLIFIED_CHINESE);
+            resolver.setSupportedLocales(LocaleConfig.SUPPORTED_LOCALES);
+            return resolver;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mcallzbl.common.config;
+
+import com.mcallzbl.common.ResultCode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.logging.LogLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 业务异常日志配置
+ * 按状态码设置日志级别，并对日志做采样和限流
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@ConfigurationProperties(prefix = "common.exception-log")
+public class ExceptionLogConfig {
+
+    /**
+     * 按状态码指定日志级别，例如 common.exception-log.levels.PASSWORD_INCORRECT=DEBUG
+     * 未配置的状态码：预期内的异常使用expectedLevel，其他使用ERROR
+     */
+    private Map<ResultCode, LogLevel> levels = new HashMap<>();
+
+    /**
+     * 预期内的业务异常（密码错误、用户已存在等）默认的日志级别
+     */
+    private LogLevel expectedLevel = LogLevel.INFO;
+
+    /**
+     * 预期内的业务异常的日志采样率，取值0~1，默认全部记录
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * 每个状态码每秒最多记录的日志条数，小于等于0表示不限制
+     */
+    private int maxPerSecond = 20;
+}
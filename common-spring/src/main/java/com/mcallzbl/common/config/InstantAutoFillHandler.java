@@ -1,6 +1,7 @@
 package com.mcallzbl.common.config;
 
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.mcallzbl.common.util.CoarseClock;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.stereotype.Component;
@@ -18,7 +19,7 @@ public class InstantAutoFillHandler implements MetaObjectHandler {
 
     @Override
     public void insertFill(MetaObject metaObject) {
-        Instant now = Instant.now();
+        Instant now = CoarseClock.now();
         log.info("自动填充插入时间: {}", now);
         metaObject.setValue("createdTime", now);
         metaObject.setValue("updatedTime", now);
@@ -28,7 +29,7 @@ public class InstantAutoFillHandler implements MetaObjectHandler {
 
     @Override
     public void updateFill(MetaObject metaObject) {
-        Instant now = Instant.now();
+        Instant now = CoarseClock.now();
         log.info("自动填充更新时间: {}", now);
         metaObject.setValue("updatedTime", now);
 //        fillStrategy(metaObject, "updatedTime", now);
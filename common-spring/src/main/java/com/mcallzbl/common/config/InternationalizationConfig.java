@@ -1,14 +1,12 @@
 package com.mcallzbl.common.config;
 
+import com.mcallzbl.common.util.MessageCatalog;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
-import java.nio.charset.StandardCharsets;
-
 /**
  * 国际化配置类
  *
@@ -21,20 +19,13 @@ public class InternationalizationConfig {
 
     /**
      * 配置MessageSource Bean
-     * 用于获取国际化消息
+     * 用于获取国际化消息，消息在启动时编译为不可变的消息表
      */
     @Bean("commonMessageSource")
     @ConditionalOnMissingBean(MessageSource.class)
     public MessageSource messageSource() {
-        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
-        // 设置国际化文件的基础路径
-        messageSource.setBasename("classpath:i18n/messages");
-        // 设置默认编码
-        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
-        // 设置缓存时间（秒），-1表示永久缓存
-        messageSource.setCacheSeconds(3600);
-        // 如果找不到对应语言的文件，是否回退到系统默认语言
-        messageSource.setFallbackToSystemLocale(false);
+        // 启动时预加载所有语言文件，运行时不再检查文件变更
+        MessageCatalog messageSource = new MessageCatalog("i18n/messages");
         // 如果找不到对应的key，是否使用key本身作为消息
         messageSource.setUseCodeAsDefaultMessage(false);
         return messageSource;
@@ -0,0 +1,26 @@
+package com.mcallzbl.common.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.lang.Nullable;
+
+/**
+ * 用户语言偏好提供者
+ * 由业务模块实现（例如从已认证用户或token中读取语言设置），
+ * {@link MemoizedLocaleResolver} 优先使用这里返回的语言，没有时才解析Accept-Language请求头
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@FunctionalInterface
+public interface LanguagePreferenceProvider {
+
+    /**
+     * 获取当前请求用户偏好的语言
+     *
+     * @param request 当前请求
+     * @return 语言标签（如 "zh-CN"、"en"、"ja_JP"），没有偏好时返回null
+     */
+    @Nullable
+    String getPreferredLanguage(HttpServletRequest request);
+}
@@ -1,11 +1,11 @@
 package com.mcallzbl.common.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.LocaleResolver;
-import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
 
-import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -19,24 +19,23 @@ import java.util.Locale;
 @Configuration
 public class LocaleConfig {
 
+    /**
+     * 支持的语言列表
+     */
+    public static final List<Locale> SUPPORTED_LOCALES = List.of(
+            Locale.SIMPLIFIED_CHINESE,  // zh_CN
+            Locale.ENGLISH,             // en
+            Locale.JAPAN                // ja_JP
+    );
+
     /**
      * 配置Locale解析器
-     * 基于Accept-Language请求头解析用户语言偏好
+     * 优先使用已登录用户的语言设置，其次基于Accept-Language请求头解析用户语言偏好，解析结果会被缓存
      */
     @Bean
-    public LocaleResolver localeResolver() {
-        AcceptHeaderLocaleResolver resolver = new AcceptHeaderLocaleResolver();
-
-        // 设置默认语言为中文
-        resolver.setDefaultLocale(Locale.SIMPLIFIED_CHINESE);
-
-        // 设置支持的语言列表
-        resolver.setSupportedLocales(Arrays.asList(
-                Locale.SIMPLIFIED_CHINESE,  // zh_CN
-                Locale.ENGLISH,             // en
-                Locale.JAPAN                // ja_JP
-        ));
-
-        return resolver;
+    public LocaleResolver localeResolver(ObjectProvider<LanguagePreferenceProvider> preferenceProviders) {
+        // 默认语言为中文，只在支持的语言中匹配
+        return new MemoizedLocaleResolver(SUPPORTED_LOCALES, Locale.SIMPLIFIED_CHINESE,
+                preferenceProviders.orderedStream().toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+package com.mcallzbl.common.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.LocaleResolver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 带缓存的Locale解析器
+ * 解析顺序：
+ * <ol>
+ *     <li>{@link LanguagePreferenceProvider} 提供的用户语言偏好（已登录用户的语言设置）</li>
+ *     <li>Accept-Language请求头</li>
+ *     <li>默认语言</li>
+ * </ol>
+ * 语言标签和请求头到支持语言的匹配结果按原始字符串缓存，相同的请求头只解析一次；
+ * 同一请求内的解析结果保存在请求属性中，多次获取Locale不会重复解析
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class MemoizedLocaleResolver implements LocaleResolver {
+    private static final String LOCALE_ATTRIBUTE = MemoizedLocaleResolver.class.getName() + ".LOCALE";
+
+    /**
+     * 缓存上限，请求头由客户端决定，超过上限时整体清空
+     */
+    private static final int MAX_CACHED = 256;
+
+    private final List<Locale> supportedLocales;
+    private final Locale defaultLocale;
+    private final List<LanguagePreferenceProvider> preferenceProviders;
+    private final Map<String, Locale> headerCache = new ConcurrentHashMap<>();
+    private final Map<String, Locale> preferenceCache = new ConcurrentHashMap<>();
+
+    public MemoizedLocaleResolver(List<Locale> supportedLocales, Locale defaultLocale,
+                                  List<LanguagePreferenceProvider> preferenceProviders) {
+        this.supportedLocales = List.copyOf(supportedLocales);
+        this.defaultLocale = defaultLocale;
+        this.preferenceProviders = List.copyOf(preferenceProviders);
+    }
+
+    @Override
+    @NonNull
+    public Locale resolveLocale(@NonNull HttpServletRequest request) {
+        Object resolved = request.getAttribute(LOCALE_ATTRIBUTE);
+        if (resolved instanceof Locale locale) {
+            return locale;
+        }
+        Locale locale = resolvePreferred(request);
+        if (locale == null) {
+            locale = resolveHeader(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+        }
+        request.setAttribute(LOCALE_ATTRIBUTE, locale);
+        return locale;
+    }
+
+    @Override
+    public void setLocale(@NonNull HttpServletRequest request, @Nullable HttpServletResponse response,
+                          @Nullable Locale locale) {
+        throw new UnsupportedOperationException(
+                "Cannot change locale - use the user's language setting or the Accept-Language header instead");
+    }
+
+    @Nullable
+    private Locale resolvePreferred(HttpServletRequest request) {
+        for (LanguagePreferenceProvider provider : preferenceProviders) {
+            String language = provider.getPreferredLanguage(request);
+            if (StringUtils.hasText(language)) {
+                Locale locale = cached(preferenceCache, language, this::matchLanguageTag);
+                if (locale != null) {
+                    return locale;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Locale resolveHeader(@Nullable String header) {
+        if (!StringUtils.hasText(header)) {
+            return defaultLocale;
+        }
+        Locale locale = cached(headerCache, header, this::matchAcceptLanguage);
+        return locale != null ? locale : defaultLocale;
+    }
+
+    /**
+     * 缓存中保存默认语言表示"没有匹配"，避免对不支持的值反复解析
+     */
+    @Nullable
+    private Locale cached(Map<String, Locale> cache, String key, Function<String, Locale> matcher) {
+        Locale locale = cache.get(key);
+        if (locale == null) {
+            Locale matched = matcher.apply(key);
+            locale = matched != null ? matched : Locale.ROOT;
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(key, locale);
+        }
+        return Locale.ROOT.equals(locale) ? null : locale;
+    }
+
+    /**
+     * 匹配用户保存的语言标签，兼容 "zh-CN" 和 "zh_CN" 两种写法
+     */
+    @Nullable
+    private Locale matchLanguageTag(String language) {
+        Locale requested = Locale.forLanguageTag(language.trim().replace('_', '-'));
+        Locale exact = exactMatch(requested);
+        return exact != null ? exact : languageMatch(requested);
+    }
+
+    /**
+     * 按q值从高到低匹配Accept-Language中的语言，完全匹配优先，其次是第一个同语种的支持语言
+     */
+    @Nullable
+    private Locale matchAcceptLanguage(String header) {
+        List<Locale.LanguageRange> ranges;
+        try {
+            ranges = Locale.LanguageRange.parse(header);
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid Accept-Language header: {}", header);
+            return null;
+        }
+        Locale languageMatch = null;
+        for (Locale.LanguageRange range : ranges) {
+            if ("*".equals(range.getRange())) {
+                continue;
+            }
+            Locale requested = Locale.forLanguageTag(range.getRange());
+            Locale exact = exactMatch(requested);
+            if (exact != null) {
+                return exact;
+            }
+            if (languageMatch == null) {
+                languageMatch = languageMatch(requested);
+            }
+        }
+        return languageMatch;
+    }
+
+    @Nullable
+    private Locale exactMatch(Locale requested) {
+        for (Locale supported : supportedLocales) {
+            if (supported.getLanguage().equals(requested.getLanguage())
+                    && supported.getCountry().equalsIgnoreCase(requested.getCountry())) {
+                return supported;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Locale languageMatch(Locale requested) {
+        for (Locale supported : supportedLocales) {
+            if (supported.getLanguage().equals(requested.getLanguage())) {
+                return supported;
+            }
+        }
+        return null;
+    }
+}
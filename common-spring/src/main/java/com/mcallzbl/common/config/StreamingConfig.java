@@ -0,0 +1,23 @@
+package com.mcallzbl.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 流式响应配置
+ * 控制返回Stream/Iterator/Cursor的接口的输出方式
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@ConfigurationProperties(prefix = "common.streaming")
+public class StreamingConfig {
+
+    /**
+     * 每写出多少个元素flush一次
+     * 默认100，越小客户端越早收到数据，但写出次数越多
+     */
+    private int flushEvery = 100;
+}
@@ -2,6 +2,7 @@ package com.mcallzbl.common.dto;
 
 import com.mcallzbl.common.Result;
 import com.mcallzbl.common.ResultCode;
+import com.mcallzbl.common.util.CoarseClock;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -65,7 +66,7 @@ public class CommonResultTransferVO<T> {
                 .code(200)
                 .message(ResultCode.SUCCESS.getMessage())
                 .data(data)
-                .timestamp(Instant.now())
+                .timestamp(CoarseClock.now())
                 .build();
     }
 
@@ -77,7 +78,7 @@ public class CommonResultTransferVO<T> {
                 .code(200)
                 .message(message)
                 .data(data)
-                .timestamp(Instant.now())
+                .timestamp(CoarseClock.now())
                 .build();
     }
 
@@ -89,7 +90,7 @@ public class CommonResultTransferVO<T> {
                 .code(code)
                 .message(message)
                 .data(null)
-                .timestamp(Instant.now())
+                .timestamp(CoarseClock.now())
                 .build();
     }
 
@@ -101,7 +102,7 @@ public class CommonResultTransferVO<T> {
                 .code(code)
                 .message(message)
                 .data(data)
-                .timestamp(Instant.now())
+                .timestamp(CoarseClock.now())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.mcallzbl.common.exception;
+
+import com.mcallzbl.common.BusinessException;
+import com.mcallzbl.common.ResultCode;
+import com.mcallzbl.common.config.ExceptionLogConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
+import org.springframework.boot.logging.LogLevel;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 业务异常日志记录器
+ * 按状态码决定日志级别，预期内的异常按比例采样，每个状态码每秒限流，
+ * 被丢弃的条数累计到下一条日志中输出；同时按状态码统计异常次数
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class BusinessExceptionLogger {
+    private final ExceptionLogConfig config;
+    private final Map<Integer, CodeCounter> counters = new ConcurrentHashMap<>();
+
+    public BusinessExceptionLogger(ExceptionLogConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 记录业务异常
+     *
+     * @param e    业务异常
+     * @param path 请求路径
+     */
+    public void log(BusinessException e, String path) {
+        CodeCounter counter = counters.computeIfAbsent(e.getCode(), code -> new CodeCounter());
+        counter.total.increment();
+
+        Level level = levelOf(e);
+        if (level == null || !log.isEnabledForLevel(level)
+                || e.isExpected() && !sampled()
+                || !counter.tryAcquire(config.getMaxPerSecond())) {
+            counter.suppressed.increment();
+            return;
+        }
+        long suppressed = counter.suppressed.sumThenReset();
+        if (e.isExpected()) {
+            // 预期内的异常没有调用栈，只记录消息
+            log.atLevel(level).log("Business Exception - Code: {} - User Message: {} - Request URI: {} - Suppressed: {}",
+                    e.getCode(), e.getUserFriendlyMessage(), path, suppressed);
+        } else {
+            log.atLevel(level).setCause(e).log("Business Exception - Code: {} - User Message: {} - Request URI: {} - Suppressed: {}",
+                    e.getCode(), e.getUserFriendlyMessage(), path, suppressed);
+        }
+    }
+
+    /**
+     * 按状态码统计的异常次数（包括未输出日志的）
+     *
+     * @return 状态码到次数的快照
+     */
+    public Map<Integer, Long> getCounts() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        counters.forEach((code, counter) -> snapshot.put(code, counter.total.sum()));
+        return snapshot;
+    }
+
+    private Level levelOf(BusinessException e) {
+        ResultCode resultCode = ResultCode.fromCode(e.getCode());
+        LogLevel configured = resultCode != null ? config.getLevels().get(resultCode) : null;
+        if (configured == null) {
+            configured = e.isExpected() ? config.getExpectedLevel() : LogLevel.ERROR;
+        }
+        return switch (configured) {
+            case TRACE -> Level.TRACE;
+            case DEBUG -> Level.DEBUG;
+            case INFO -> Level.INFO;
+            case WARN -> Level.WARN;
+            case ERROR, FATAL -> Level.ERROR;
+            case OFF -> null;
+        };
+    }
+
+    private boolean sampled() {
+        double rate = config.getSampleRate();
+        return rate >= 1.0 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * 单个状态码的计数器和每秒限流窗口
+     */
+    private static final class CodeCounter {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder suppressed = new LongAdder();
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicInteger logged = new AtomicInteger();
+
+        boolean tryAcquire(int maxPerSecond) {
+            if (maxPerSecond <= 0) {
+                return true;
+            }
+            long second = System.currentTimeMillis() / 1000;
+            long current = window.get();
+            if (current != second && window.compareAndSet(current, second)) {
+                logged.set(0);
+            }
+            return logged.incrementAndGet() <= maxPerSecond;
+        }
+    }
+}
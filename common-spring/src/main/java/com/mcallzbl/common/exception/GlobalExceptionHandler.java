@@ -2,9 +2,13 @@ package com.mcallzbl.common.exception;
 
 import com.mcallzbl.common.BusinessException;
 import com.mcallzbl.common.Result;
+import com.mcallzbl.common.ResultCode;
 import com.mcallzbl.common.annotation.ResponseWrapper;
+import com.mcallzbl.common.util.ResultCodeMessages;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -18,16 +22,20 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 @ResponseWrapper
 @Slf4j
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final BusinessExceptionLogger businessExceptionLogger;
+    private final ResultCodeMessages resultCodeMessages;
+
     /**
      * 处理业务异常
+     * 日志级别、采样和限流由 {@link BusinessExceptionLogger} 按状态码决定
      */
     @ExceptionHandler(BusinessException.class)
     @ResponseBody
     public Result<Object> handleBusinessException(BusinessException e, HttpServletRequest request) {
-        log.error("Business Exception - User Message: {} - Request URI: {}",
-                e.getUserFriendlyMessage(), request.getRequestURI(), e);
+        businessExceptionLogger.log(e, request.getRequestURI());
         return Result.failed(e);
     }
 
@@ -137,7 +145,7 @@ public class GlobalExceptionHandler {
         String errorMessage = e.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .reduce((msg1, msg2) -> msg1 + "; " + msg2)
-                .orElse("参数校验失败");
+                .orElseGet(() -> resultCodeMessages.get(ResultCode.VALIDATION_FAILED, LocaleContextHolder.getLocale()));
 
         return Result.validationFailed(errorMessage);
     }
@@ -155,7 +163,7 @@ public class GlobalExceptionHandler {
         String errorMessage = e.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .reduce((msg1, msg2) -> msg1 + "; " + msg2)
-                .orElse("参数绑定失败");
+                .orElseGet(() -> resultCodeMessages.get(ResultCode.VALIDATION_FAILED, LocaleContextHolder.getLocale()));
 
         return Result.validationFailed(errorMessage);
     }
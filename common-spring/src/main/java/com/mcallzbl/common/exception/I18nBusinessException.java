@@ -2,8 +2,10 @@ package com.mcallzbl.common.exception;
 
 import com.mcallzbl.common.ResultCode;
 import com.mcallzbl.common.util.CommonI18nUtils;
+import com.mcallzbl.common.util.ResultCodeMessages;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
@@ -11,7 +13,7 @@ import java.util.Locale;
 
 /**
  * 国际化业务异常处理器
- * 提供支持多语言的业务异常创建方法
+ * 提供支持多语言的业务异常创建方法，不带参数的状态码消息直接取自预先构建的 {@link ResultCodeMessages}
  *
  * @author mcallzbl
  * @version 1.0
@@ -23,6 +25,7 @@ import java.util.Locale;
 public class I18nBusinessException {
 
     private final CommonI18nUtils commonI18NUtils;
+    private final ResultCodeMessages resultCodeMessages;
 
     /**
      * 创建国际化业务异常
@@ -31,7 +34,7 @@ public class I18nBusinessException {
      * @return 业务异常
      */
     public com.mcallzbl.common.BusinessException create(ResultCode resultCode) {
-        String localizedMessage = commonI18NUtils.getMessage(resultCode.getMessageKey());
+        String localizedMessage = resultCodeMessages.get(resultCode, LocaleContextHolder.getLocale());
         return new com.mcallzbl.common.BusinessException(HttpStatus.OK, resultCode.getCode(), localizedMessage);
     }
 
@@ -55,7 +58,7 @@ public class I18nBusinessException {
      * @return 业务异常
      */
     public com.mcallzbl.common.BusinessException create(ResultCode resultCode, String language) {
-        String localizedMessage = commonI18NUtils.getMessage(resultCode.getMessageKey(), language);
+        String localizedMessage = resultCodeMessages.get(resultCode, commonI18NUtils.parseLocale(language));
         return new com.mcallzbl.common.BusinessException(HttpStatus.OK, resultCode.getCode(), localizedMessage);
     }
 
@@ -80,7 +83,7 @@ public class I18nBusinessException {
      * @return 业务异常
      */
     public com.mcallzbl.common.BusinessException create(ResultCode resultCode, Locale locale) {
-        String localizedMessage = commonI18NUtils.getMessage(resultCode.getMessageKey(), locale);
+        String localizedMessage = resultCodeMessages.get(resultCode, locale);
         return new com.mcallzbl.common.BusinessException(HttpStatus.OK, resultCode.getCode(), localizedMessage);
     }
 
@@ -105,7 +108,7 @@ public class I18nBusinessException {
      * @return 业务异常
      */
     public com.mcallzbl.common.BusinessException create(HttpStatus httpStatus, ResultCode resultCode) {
-        String localizedMessage = commonI18NUtils.getMessage(resultCode.getMessageKey());
+        String localizedMessage = resultCodeMessages.get(resultCode, LocaleContextHolder.getLocale());
         return new com.mcallzbl.common.BusinessException(httpStatus, resultCode.getCode(), localizedMessage);
     }
 
@@ -118,7 +121,7 @@ public class I18nBusinessException {
      * @return 业务异常
      */
     public com.mcallzbl.common.BusinessException create(HttpStatus httpStatus, ResultCode resultCode, Object data) {
-        String localizedMessage = commonI18NUtils.getMessage(resultCode.getMessageKey());
+        String localizedMessage = resultCodeMessages.get(resultCode, LocaleContextHolder.getLocale());
         return new com.mcallzbl.common.BusinessException(httpStatus, resultCode.getCode(), localizedMessage, data);
     }
 
@@ -0,0 +1,65 @@
+package com.mcallzbl.common.interceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 二进制统一响应信封写出器
+ * 基于应用的ObjectMapper复制出CBOR/Smile格式的ObjectMapper，沿用相同的模块和序列化配置，
+ * 对应的依赖不存在时不注册该格式
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public final class BinaryEnvelopeWriters {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final String CBOR_FACTORY = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+    private static final String SMILE_FACTORY = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+
+    private BinaryEnvelopeWriters() {
+    }
+
+    /**
+     * 按类路径上可用的二进制格式创建写出器
+     *
+     * @param objectMapper 应用的ObjectMapper
+     * @return 媒体类型到写出器的映射
+     */
+    public static Map<MediaType, ResultEnvelopeWriter> create(ObjectMapper objectMapper) {
+        Map<MediaType, ResultEnvelopeWriter> writers = new LinkedHashMap<>();
+        ClassLoader classLoader = BinaryEnvelopeWriters.class.getClassLoader();
+        if (ClassUtils.isPresent(CBOR_FACTORY, classLoader)) {
+            writers.put(MediaType.APPLICATION_CBOR, Cbor.writer(objectMapper));
+        }
+        if (ClassUtils.isPresent(SMILE_FACTORY, classLoader)) {
+            writers.put(APPLICATION_SMILE, Smile.writer(objectMapper));
+        }
+        return writers;
+    }
+
+    /**
+     * 单独的内部类，保证只有在依赖存在时才加载CBORFactory
+     */
+    private static final class Cbor {
+        static ResultEnvelopeWriter writer(ObjectMapper objectMapper) {
+            return new ResultEnvelopeWriter(objectMapper.copyWith(new CBORFactory()));
+        }
+    }
+
+    /**
+     * 单独的内部类，保证只有在依赖存在时才加载SmileFactory
+     */
+    private static final class Smile {
+        static ResultEnvelopeWriter writer(ObjectMapper objectMapper) {
+            return new ResultEnvelopeWriter(objectMapper.copyWith(new SmileFactory()));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mcallzbl.common.interceptor;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.mcallzbl.common.util.CoarseClock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * 预编码的统一响应信封片段
+ * 固定的 {"code":N,"message":"M","data": 前缀在创建时编码为UTF-8字节，
+ * 写出时只需要拼接data和时间戳
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public final class EnvelopeFragment {
+    private static final byte[] TIMESTAMP_OPEN = ",\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL_DATA_TIMESTAMP_OPEN = "null,\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIMESTAMP_CLOSE = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final int code;
+    private final String message;
+    private final byte[] prefix;
+
+    EnvelopeFragment(int code, String message) {
+        this.code = code;
+        this.message = message;
+        String head = "{\"code\":" + code + ",\"message\":\""
+                + new String(JsonStringEncoder.getInstance().quoteAsString(message)) + "\",\"data\":";
+        this.prefix = head.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    boolean matches(String candidate) {
+        return message.equals(candidate);
+    }
+
+    /**
+     * 写出data之前的固定前缀
+     */
+    void writePrefix(OutputStream out) throws IOException {
+        out.write(prefix);
+    }
+
+    /**
+     * 写出data之后的时间戳和结尾
+     */
+    void writeSuffix(Instant timestamp, OutputStream out) throws IOException {
+        byte[] ts = CoarseClock.format(timestamp).getBytes(StandardCharsets.US_ASCII);
+        byte[] buffer = new byte[TIMESTAMP_OPEN.length + ts.length + TIMESTAMP_CLOSE.length];
+        int offset = copy(TIMESTAMP_OPEN, buffer, 0);
+        offset = copy(ts, buffer, offset);
+        copy(TIMESTAMP_CLOSE, buffer, offset);
+        out.write(buffer);
+    }
+
+    /**
+     * 写出不带数据的完整信封，整个响应只有一次缓冲区写入
+     */
+    void writeWithoutData(Instant timestamp, OutputStream out) throws IOException {
+        byte[] ts = CoarseClock.format(timestamp).getBytes(StandardCharsets.US_ASCII);
+        byte[] buffer = new byte[prefix.length + NULL_DATA_TIMESTAMP_OPEN.length + ts.length + TIMESTAMP_CLOSE.length];
+        int offset = copy(prefix, buffer, 0);
+        offset = copy(NULL_DATA_TIMESTAMP_OPEN, buffer, offset);
+        offset = copy(ts, buffer, offset);
+        copy(TIMESTAMP_CLOSE, buffer, offset);
+        out.write(buffer);
+    }
+
+    private static int copy(byte[] source, byte[] target, int offset) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+}
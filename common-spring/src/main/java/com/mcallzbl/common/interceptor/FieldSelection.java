@@ -0,0 +1,195 @@
+package com.mcallzbl.common.interceptor;
+
+import com.mcallzbl.common.BusinessException;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 稀疏字段集（?fields=）编译后的字段树
+ * 语法：{@code id,username,profile(avatar,nickname)}，嵌套字段也可以写成 {@code profile.avatar}。
+ * 表达式编译为不可变的树，并按原始字符串缓存，相同的fields参数只解析一次；
+ * 序列化时由 {@link SparseFieldsetFilter} 按当前层级的节点判断字段是否输出
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public final class FieldSelection {
+    /**
+     * 请求参数名
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * 选中整个子树，其下所有字段都输出
+     */
+    static final FieldSelection ALL = new FieldSelection("*", Map.of());
+
+    private static final int MAX_CACHED = 512;
+    private static final int MAX_LENGTH = 1024;
+    private static final Map<String, FieldSelection> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final Map<String, FieldSelection> children;
+
+    private FieldSelection(String expression, Map<String, FieldSelection> children) {
+        this.expression = expression;
+        this.children = children;
+    }
+
+    /**
+     * 编译fields表达式，结果会被缓存
+     *
+     * @param expression fields参数
+     * @return 字段树
+     * @throws BusinessException 表达式格式错误
+     */
+    public static FieldSelection compile(String expression) {
+        FieldSelection cached = CACHE.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw BusinessException.validationFailed("fields参数过长");
+        }
+        FieldSelection compiled = new Parser(expression).parse();
+        if (CACHE.size() >= MAX_CACHED) {
+            // 表达式由客户端决定，超过上限时整体清空，防止缓存无限增长
+            CACHE.clear();
+        }
+        CACHE.put(expression, compiled);
+        return compiled;
+    }
+
+    /**
+     * 获取字段对应的子节点
+     *
+     * @param name 字段名
+     * @return 子节点；字段未被选中时返回null
+     */
+    @Nullable
+    FieldSelection child(String name) {
+        return this == ALL ? ALL : children.get(name);
+    }
+
+    /**
+     * 原始表达式，用于计算ETag等需要区分字段集的场景
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * 递归下降解析器，解析过程中使用可变的Builder，完成后冻结为不可变的树
+     */
+    private static final class Parser {
+        private final String source;
+        private int position;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        FieldSelection parse() {
+            Builder root = new Builder();
+            parseList(root);
+            if (position < source.length()) {
+                throw error();
+            }
+            return root.build(source);
+        }
+
+        private void parseList(Builder parent) {
+            while (true) {
+                skipWhitespace();
+                parseField(parent);
+                skipWhitespace();
+                if (position >= source.length() || source.charAt(position) != ',') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private void parseField(Builder parent) {
+            String name = parseName();
+            Builder node = parent.child(name);
+            if (position < source.length() && source.charAt(position) == '.') {
+                position++;
+                node.enter();
+                parseField(node);
+            } else if (position < source.length() && source.charAt(position) == '(') {
+                position++;
+                node.enter();
+                parseList(node);
+                if (position >= source.length() || source.charAt(position) != ')') {
+                    throw error();
+                }
+                position++;
+            } else {
+                node.selectAll();
+            }
+        }
+
+        private String parseName() {
+            int start = position;
+            while (position < source.length() && isNameChar(source.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw error();
+            }
+            return source.substring(start, position);
+        }
+
+        private void skipWhitespace() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '-';
+        }
+
+        private BusinessException error() {
+            return BusinessException.validationFailed("fields参数格式错误: " + source);
+        }
+    }
+
+    private static final class Builder {
+        private final Map<String, Builder> children = new LinkedHashMap<>();
+        private boolean all;
+        private boolean nested;
+
+        Builder child(String name) {
+            return children.computeIfAbsent(name, key -> new Builder());
+        }
+
+        void selectAll() {
+            all = true;
+        }
+
+        void enter() {
+            nested = true;
+        }
+
+        FieldSelection build(String expression) {
+            if (all || !nested && children.isEmpty()) {
+                // 同时出现 a 与 a(b) 时以整体选中为准
+                return ALL;
+            }
+            Map<String, FieldSelection> built = new LinkedHashMap<>();
+            children.forEach((name, child) -> built.put(name, child.build(name)));
+            return new FieldSelection(expression, Map.copyOf(built));
+        }
+    }
+}
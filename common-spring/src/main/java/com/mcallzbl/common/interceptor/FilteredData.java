@@ -0,0 +1,14 @@
+package com.mcallzbl.common.interceptor;
+
+/**
+ * 需要按稀疏字段集输出的data
+ * 由 {@link GlobalResponseWrapper} 在请求带有fields参数时创建，{@link ResultEnvelopeWriter} 按字段树序列化
+ *
+ * @param data      原始数据
+ * @param selection 编译后的字段树
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+record FilteredData(Object data, FieldSelection selection) {
+}
@@ -3,24 +3,34 @@ package com.mcallzbl.common.interceptor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcallzbl.common.Result;
-import com.mcallzbl.common.annotation.NoResponseWrapper;
-import com.mcallzbl.common.annotation.ResponseWrapper;
-import com.mcallzbl.common.dto.CommonResultTransferVO;
+import com.mcallzbl.common.ResultCode;
+import com.mcallzbl.common.VersionedEntity;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.NonNull;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * 全局响应包装器
- * 自动包装Controller返回值为统一格式
+ * 自动包装Controller返回值为统一格式，
+ * 由信封转换器写出时支持 {@code ?fields=} 稀疏字段集，只输出data中被选中的字段
  */
 @ControllerAdvice
 @Slf4j
@@ -28,38 +38,14 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 public class GlobalResponseWrapper implements ResponseBodyAdvice<Object> {
 
     private final ObjectMapper objectMapper;
+    private final ResultEnvelopeWriter envelopeWriter;
+
+    private final ResponseWrapDecider wrapDecider = new ResponseWrapDecider();
 
     @Override
     public boolean supports(MethodParameter returnType,
                             @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
-        log.debug("正在处理方法返回值...");
-
-        // 检查是否标记了NoResponseWrapper注解
-        if (returnType.getDeclaringClass().isAnnotationPresent(NoResponseWrapper.class) ||
-                returnType.hasMethodAnnotation(NoResponseWrapper.class)) {
-            log.debug("发现@NoResponseWrapper注解，跳过响应包装");
-            return false;
-        }
-
-        // 检查返回类型是否为ResponseEntity
-        if (ResponseEntity.class.isAssignableFrom(returnType.getParameterType())) {
-            log.debug("返回类型为ResponseEntity，跳过响应包装");
-            return false;
-        }
-
-        // 检查是否有ResponseWrapper注解
-        boolean hasClassAnnotation = returnType.getDeclaringClass().isAnnotationPresent(ResponseWrapper.class);
-        boolean hasMethodAnnotation = returnType.hasMethodAnnotation(ResponseWrapper.class);
-
-        if (hasClassAnnotation || hasMethodAnnotation) {
-            log.debug("找到@ResponseWrapper注解，将对响应进行包装: {}.{}",
-                    returnType.getDeclaringClass().getSimpleName(),
-                    returnType.getMethod() != null ? returnType.getMethod().getName() : "unknown");
-            return true;
-        }
-
-        log.debug("未找到@ResponseWrapper注解，跳过响应包装");
-        return false;
+        return shouldWrapResponse(returnType);
     }
 
     @Override
@@ -71,75 +57,119 @@ public class GlobalResponseWrapper implements ResponseBodyAdvice<Object> {
             @NonNull ServerHttpRequest request,
             @NonNull ServerHttpResponse response
     ) {
-        // 双重检查是否应该包装响应
-        if (!shouldWrapResponse(returnType)) {
-            log.debug("双重检查失败，跳过响应包装: {}.{}",
-                    returnType.getDeclaringClass().getSimpleName(),
-                    returnType.getMethod() != null ? returnType.getMethod().getName() : "unknown");
-            return body;
+        // supports已对同一个处理方法返回true，这里无需再次检查
+        Result<?> result;
+        if (body instanceof Result<?> original) {
+            // 设置HTTP状态码
+            response.setStatusCode(original.getHttpStatus());
+            result = original;
+        } else {
+            result = Result.success(body);
         }
 
-        try {
-            // 如果已经是Result类型，直接转换为传输DTO
-            if (body instanceof Result<?> result) {
-                // 设置HTTP状态码
-                response.setStatusCode(result.getHttpStatus());
-
-                log.debug("包装Result对象: code={}, message={}, data={}",
-                        result.getCode(), result.getMessage(), result.getData());
-
-                return CommonResultTransferVO.from(result);
-            }
-
-            // 处理String返回类型的特殊情况
-            if (body instanceof String) {
-                Result<String> result = Result.success((String) body);
-                CommonResultTransferVO<String> transferDTO = CommonResultTransferVO.from(result);
+        // 由信封转换器直接写出，无需中间传输对象
+        if (ResultEnvelopeHttpMessageConverter.class.isAssignableFrom(selectedConverterType)) {
+            result = applyFieldSelection(result, request);
+            return wrapDecider.isConditionalGet(returnType)
+                    ? applyEntityTag(result, selectedContentType, request, response) : result;
+        }
 
-                try {
-                    String jsonString = objectMapper.writeValueAsString(transferDTO);
-                    log.debug("包装String响应: {}", jsonString);
-                    return jsonString;
-                } catch (JsonProcessingException e) {
-                    log.error("序列化响应失败，返回原始内容: {}", e.getMessage());
-                    return body;
-                }
+        // 客户端协商到了其他转换器（例如text/plain），String返回值只能先序列化为JSON字符串
+        if (body instanceof String) {
+            try {
+                return objectMapper.writeValueAsString(result);
+            } catch (JsonProcessingException e) {
+                log.error("序列化响应失败，返回原始内容: {}", e.getMessage());
+                return body;
             }
+        }
+        // Result与传输对象的JSON结构一致，其他转换器直接序列化Result即可
+        return result;
+    }
 
-            // 包装其他类型的返回值
-            Result<Object> result = Result.success(body);
-            CommonResultTransferVO<Object> transferDTO = CommonResultTransferVO.from(result);
-
-            log.debug("包装对象响应: code={}, message={}, data={}",
-                    transferDTO.getCode(), transferDTO.getMessage(), transferDTO.getData());
-
-            return transferDTO;
-
-        } catch (Exception e) {
-            log.error("响应包装过程中发生异常，返回原始内容: {}", e.getMessage(), e);
-            return body;
+    /**
+     * 请求带有fields参数时把data替换为按字段树序列化的数据，字段树按表达式缓存，每个请求只查找一次。
+     * 字符串、流式数据和已序列化的数据不做过滤
+     */
+    private Result<?> applyFieldSelection(Result<?> result, ServerHttpRequest request) {
+        Object data = result.getData();
+        if (data == null
+                || data instanceof String
+                || data instanceof SerializedData
+                || ResultEnvelopeWriter.isStreamingSource(data.getClass())
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return result;
         }
+        String expression = servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER);
+        if (!StringUtils.hasText(expression)) {
+            return result;
+        }
+        FieldSelection selection = FieldSelection.compile(expression.trim());
+        return Result.custom(result.getHttpStatus(), result.getCode(), result.getMessage(),
+                new FilteredData(data, selection));
     }
 
     /**
-     * 检查是否应该包装响应（用于双重验证）
+     * 计算弱ETag并处理If-None-Match，命中时返回null（状态码304，不输出响应体）。
+     * ETag只由data计算，响应体中的本地化消息和时间戳不参与，因此使用弱ETag，并声明响应随Accept-Language变化
      */
-    private boolean shouldWrapResponse(MethodParameter returnType) {
-        // 检查NoResponseWrapper注解
-        if (returnType.getDeclaringClass().isAnnotationPresent(NoResponseWrapper.class) ||
-                returnType.hasMethodAnnotation(NoResponseWrapper.class)) {
-            return false;
+    private Object applyEntityTag(Result<?> result, MediaType contentType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Object data = result.getData();
+        if (data == null
+                || result.getCode() != ResultCode.SUCCESS.getCode()
+                || ResultEnvelopeWriter.isStreamingSource(data.getClass())
+                || !(HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod()))
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return result;
         }
 
-        // 检查ResponseEntity类型
-        if (ResponseEntity.class.isAssignableFrom(returnType.getParameterType())) {
-            return false;
+        Result<?> body = result;
+        boolean json = contentType.getSubtype().endsWith("json");
+        Object entityData = data instanceof FilteredData filtered ? filtered.data() : data;
+        byte[] source;
+        if (entityData instanceof VersionedEntity entity && entity.getVersion() != null) {
+            // 由实体ID和版本计算，不需要序列化；二进制格式和字段集的表示不同，ETag中加入区分
+            String version = entityData.getClass().getName() + ":" + entity.getId() + ":" + entity.getVersion();
+            if (!json) {
+                version += ":" + contentType.getSubtype();
+            }
+            if (data instanceof FilteredData filtered) {
+                version += ":" + filtered.selection().getExpression();
+            }
+            source = version.getBytes(StandardCharsets.UTF_8);
+        } else if (!json) {
+            // 二进制格式无法直接嵌入已序列化的JSON，只支持由实体版本计算ETag
+            return result;
+        } else {
+            // 由序列化后的data计算，序列化结果直接用于输出
+            try {
+                source = envelopeWriter.serializeData(data);
+            } catch (IOException e) {
+                log.warn("序列化响应数据失败，跳过ETag计算: {}", e.getMessage());
+                return result;
+            }
+            body = Result.custom(result.getHttpStatus(), result.getCode(), result.getMessage(),
+                    new SerializedData(source));
         }
 
-        // 检查ResponseWrapper注解
-        boolean hasClassAnnotation = returnType.getDeclaringClass().isAnnotationPresent(ResponseWrapper.class);
-        boolean hasMethodAnnotation = returnType.hasMethodAnnotation(ResponseWrapper.class);
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(source) + "\"";
+        HttpServletResponse httpResponse = servletResponse.getServletResponse();
+        if (!httpResponse.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_LANGUAGE)) {
+            httpResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+        }
+        ServletWebRequest webRequest = new ServletWebRequest(servletRequest.getServletRequest(), httpResponse);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return body;
+    }
 
-        return hasClassAnnotation || hasMethodAnnotation;
+    /**
+     * 检查是否应该包装响应，结果按处理方法缓存
+     */
+    public boolean shouldWrapResponse(MethodParameter returnType) {
+        return wrapDecider.shouldWrap(returnType);
     }
-}
\ No newline at end of file
+}
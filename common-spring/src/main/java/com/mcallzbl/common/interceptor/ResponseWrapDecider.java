@@ -0,0 +1,84 @@
+package com.mcallzbl.common.interceptor;
+
+import com.mcallzbl.common.annotation.ConditionalGet;
+import com.mcallzbl.common.annotation.NoResponseWrapper;
+import com.mcallzbl.common.annotation.ResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 响应包装判定
+ * 根据 {@link ResponseWrapper}/{@link NoResponseWrapper} 注解和返回类型判断处理方法的返回值是否需要包装，
+ * Spring MVC和WebFlux共用同一套规则
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class ResponseWrapDecider {
+
+    /**
+     * 每个处理方法是否需要包装，注解和返回类型在运行期不会变化，首次判断后缓存
+     */
+    private final Map<Method, Boolean> wrapDecisions = new ConcurrentHashMap<>();
+
+    /**
+     * 每个处理方法是否启用条件请求
+     */
+    private final Map<Method, Boolean> conditionalGets = new ConcurrentHashMap<>();
+
+    /**
+     * 检查是否应该包装响应，结果按处理方法缓存
+     */
+    public boolean shouldWrap(MethodParameter returnType) {
+        Method method = returnType.getMethod();
+        if (method == null) {
+            return decideWrap(returnType);
+        }
+        return wrapDecisions.computeIfAbsent(method, key -> decideWrap(returnType));
+    }
+
+    /**
+     * 检查处理方法是否标记了 {@link ConditionalGet}，结果按处理方法缓存
+     */
+    public boolean isConditionalGet(MethodParameter returnType) {
+        Method method = returnType.getMethod();
+        if (method == null) {
+            return false;
+        }
+        return conditionalGets.computeIfAbsent(method, key ->
+                returnType.getDeclaringClass().isAnnotationPresent(ConditionalGet.class)
+                        || returnType.hasMethodAnnotation(ConditionalGet.class));
+    }
+
+    private boolean decideWrap(MethodParameter returnType) {
+        String handler = returnType.getDeclaringClass().getSimpleName() + "."
+                + (returnType.getMethod() != null ? returnType.getMethod().getName() : "unknown");
+
+        // 检查是否标记了NoResponseWrapper注解
+        if (returnType.getDeclaringClass().isAnnotationPresent(NoResponseWrapper.class) ||
+                returnType.hasMethodAnnotation(NoResponseWrapper.class)) {
+            log.debug("发现@NoResponseWrapper注解，跳过响应包装: {}", handler);
+            return false;
+        }
+
+        // 检查返回类型是否为ResponseEntity
+        if (ResponseEntity.class.isAssignableFrom(returnType.getParameterType())) {
+            log.debug("返回类型为ResponseEntity，跳过响应包装: {}", handler);
+            return false;
+        }
+
+        // 检查是否有ResponseWrapper注解
+        boolean hasClassAnnotation = returnType.getDeclaringClass().isAnnotationPresent(ResponseWrapper.class);
+        boolean hasMethodAnnotation = returnType.hasMethodAnnotation(ResponseWrapper.class);
+        boolean wrap = hasClassAnnotation || hasMethodAnnotation;
+        log.debug(wrap ? "找到@ResponseWrapper注解，将对响应进行包装: {}" : "未找到@ResponseWrapper注解，跳过响应包装: {}", handler);
+        return wrap;
+    }
+}
@@ -0,0 +1,166 @@
+package com.mcallzbl.common.interceptor;
+
+import com.mcallzbl.common.Result;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统一响应信封消息转换器
+ * 排在默认转换器之前，接管 {@link Result} 以及需要包装的处理方法的返回值（包括String），
+ * 由 {@link GlobalResponseWrapper} 把返回值包装成Result后交给 {@link ResultEnvelopeWriter} 直接写出。
+ * 返回Stream/Iterator/Cursor时逐个元素流式写出，客户端接受 application/x-ndjson 时按NDJSON输出；
+ * 客户端明确接受 application/cbor 或 application/x-jackson-smile 时以对应的二进制格式输出同样的信封
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public class ResultEnvelopeHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    private final ResultEnvelopeWriter envelopeWriter;
+    private final Map<MediaType, ResultEnvelopeWriter> binaryWriters;
+    private final GlobalResponseWrapper responseWrapper;
+    private final int flushEvery;
+
+    public ResultEnvelopeHttpMessageConverter(ResultEnvelopeWriter envelopeWriter,
+                                              GlobalResponseWrapper responseWrapper,
+                                              int flushEvery) {
+        this(envelopeWriter, Map.of(), responseWrapper, flushEvery);
+    }
+
+    /**
+     * @param envelopeWriter JSON写出器
+     * @param binaryWriters  二进制格式（CBOR/Smile等）的写出器，仅在客户端明确接受对应媒体类型时使用
+     */
+    public ResultEnvelopeHttpMessageConverter(ResultEnvelopeWriter envelopeWriter,
+                                              Map<MediaType, ResultEnvelopeWriter> binaryWriters,
+                                              GlobalResponseWrapper responseWrapper,
+                                              int flushEvery) {
+        this.envelopeWriter = envelopeWriter;
+        this.binaryWriters = Map.copyOf(binaryWriters);
+        this.responseWrapper = responseWrapper;
+        this.flushEvery = flushEvery;
+        // JSON排在前面，Accept为*/*时仍然输出JSON
+        List<MediaType> mediaTypes = new ArrayList<>(List.of(
+                MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), MediaType.APPLICATION_NDJSON));
+        mediaTypes.addAll(binaryWriters.keySet());
+        setSupportedMediaTypes(mediaTypes);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(@NonNull Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@NonNull Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (isNdjson(mediaType) && !ResultEnvelopeWriter.isStreamingSource(clazz)) {
+            return false;
+        }
+        return Result.class.isAssignableFrom(clazz) || isWrappedHandler();
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, @NonNull Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(clazz, mediaType);
+    }
+
+    /**
+     * NDJSON只对流式返回值开放，避免普通接口在内容协商时被选中
+     */
+    @Override
+    @NonNull
+    public List<MediaType> getSupportedMediaTypes(@NonNull Class<?> clazz) {
+        if (ResultEnvelopeWriter.isStreamingSource(clazz)) {
+            return getSupportedMediaTypes();
+        }
+        return getSupportedMediaTypes().stream()
+                .filter(mediaType -> !isNdjson(mediaType))
+                .toList();
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object body, @Nullable Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        ResultEnvelopeWriter writer = writerFor(contentType);
+        if (body instanceof Result<?> result && result.getData() != null
+                && ResultEnvelopeWriter.isStreamingSource(result.getData().getClass())) {
+            writer.writeStreaming(result, outputMessage.getBody(), isNdjson(contentType), flushEvery);
+        } else if (body instanceof Result<?> result) {
+            writer.write(result, outputMessage.getBody());
+        } else {
+            // 异常处理方法等未被包装的返回值，按普通对象写出
+            writer.writeValue(body, outputMessage.getBody());
+        }
+    }
+
+    @Override
+    @NonNull
+    public Object read(@NonNull Type type, @Nullable Class<?> contextClass, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("不支持读取统一响应信封", inputMessage);
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("不支持读取统一响应信封", inputMessage);
+    }
+
+    private ResultEnvelopeWriter writerFor(@Nullable MediaType contentType) {
+        if (contentType != null && !binaryWriters.isEmpty()) {
+            for (Map.Entry<MediaType, ResultEnvelopeWriter> entry : binaryWriters.entrySet()) {
+                if (entry.getKey().isCompatibleWith(contentType) && !contentType.isWildcardSubtype()) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return envelopeWriter;
+    }
+
+    private static boolean isNdjson(@Nullable MediaType mediaType) {
+        return mediaType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)
+                && !mediaType.isWildcardSubtype();
+    }
+
+    /**
+     * 转换器在响应包装之前被选择，此时只能根据当前请求匹配到的处理方法判断是否会被包装
+     */
+    private boolean isWrappedHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return handler instanceof HandlerMethod handlerMethod
+                && responseWrapper.shouldWrapResponse(handlerMethod.getReturnType());
+    }
+}
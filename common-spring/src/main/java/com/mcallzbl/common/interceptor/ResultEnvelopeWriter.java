@@ -0,0 +1,398 @@
+package com.mcallzbl.common.interceptor;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mcallzbl.common.Result;
+import com.mcallzbl.common.ResultCode;
+import com.mcallzbl.common.util.CoarseClock;
+import com.mcallzbl.common.util.ResultCodeMessages;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 统一响应信封写出器
+ * 直接通过JsonGenerator把 {code,message,data,timestamp} 写入输出流，
+ * data在原位序列化，不再经过中间传输对象，String数据也不会被二次编码。
+ * 每个 {@link ResultCode} 的默认消息及各支持语言的翻译会预编码为 {@link EnvelopeFragment}，
+ * 命中时只需序列化data和时间戳，不带数据的结果只需一次缓冲区写入。
+ * data为 {@link Stream}、{@link Iterator} 或MyBatis {@link Cursor} 时逐个元素写出，见 {@link #writeStreaming}
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class ResultEnvelopeWriter {
+    private static final SerializedString FIELD_CODE = new SerializedString("code");
+    private static final SerializedString FIELD_MESSAGE = new SerializedString("message");
+    private static final SerializedString FIELD_DATA = new SerializedString("data");
+    private static final SerializedString FIELD_TIMESTAMP = new SerializedString("timestamp");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 序列化data使用的writer，关闭了每次写值后的flush，由调用方决定何时flush
+     */
+    private final ObjectWriter dataWriter;
+
+    /**
+     * 按稀疏字段集序列化data使用的writer，所有Bean都挂上 {@link SparseFieldsetFilter}
+     */
+    private final ObjectWriter sparseWriter;
+
+    /**
+     * 时间戳按ISO-8601字符串输出时可直接使用Instant.toString()（同一刻度内复用缓存的字符串），与JavaTimeModule的输出一致
+     */
+    private final boolean isoTimestamp;
+
+    /**
+     * 按状态码索引的预编码片段，状态码消息表重建时整体替换
+     */
+    private volatile Map<Integer, EnvelopeFragment[]> fragments;
+
+    /**
+     * 输出格式与预编码片段一致时才走预编码路径（JSON格式、ISO时间戳、无缩进、不转义非ASCII字符）
+     */
+    private final boolean preEncodable;
+
+    public ResultEnvelopeWriter(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    /**
+     * @param objectMapper   序列化使用的ObjectMapper
+     * @param resultMessages 状态码消息表，各语言的状态码消息都会预编码，消息表重建时重新预编码
+     */
+    public ResultEnvelopeWriter(ObjectMapper objectMapper, @Nullable ResultCodeMessages resultMessages) {
+        this.objectMapper = objectMapper;
+        this.dataWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.sparseWriter = createSparseWriter(objectMapper);
+        this.isoTimestamp = !objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.preEncodable = isoTimestamp
+                && JsonFactory.FORMAT_NAME_JSON.equals(objectMapper.getFactory().getFormatName())
+                && !objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)
+                && !objectMapper.getFactory().isEnabled(JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature());
+        this.fragments = preEncodable ? buildFragments(resultMessages) : Map.of();
+        if (preEncodable && resultMessages != null) {
+            resultMessages.addReloadListener(() -> this.fragments = buildFragments(resultMessages));
+        }
+    }
+
+    /**
+     * 为固定的状态码和消息创建预编码片段，供安全处理器等直接写响应的场景复用
+     *
+     * @param code    业务状态码
+     * @param message 响应消息
+     * @return 预编码片段
+     */
+    public EnvelopeFragment preEncode(int code, String message) {
+        return new EnvelopeFragment(code, message);
+    }
+
+    /**
+     * 写出不带数据的预编码信封，不会关闭输出流
+     *
+     * @param fragment 预编码片段
+     * @param out      输出流
+     */
+    public void write(EnvelopeFragment fragment, OutputStream out) throws IOException {
+        Instant timestamp = CoarseClock.now();
+        if (preEncodable) {
+            fragment.writeWithoutData(timestamp, out);
+        } else {
+            write(Result.custom(null, fragment.getCode(), fragment.getMessage(), null), out);
+        }
+    }
+
+    /**
+     * 写出统一响应信封，不会关闭输出流
+     *
+     * @param result 响应结果
+     * @param out    输出流
+     */
+    public void write(Result<?> result, OutputStream out) throws IOException {
+        EnvelopeFragment fragment = preEncodable && result.getTimestamp() != null
+                ? findFragment(result.getCode(), result.getMessage()) : null;
+        if (fragment != null) {
+            writeFragment(fragment, result, out);
+            return;
+        }
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeFieldName(FIELD_CODE);
+            generator.writeNumber(result.getCode());
+            generator.writeFieldName(FIELD_MESSAGE);
+            generator.writeString(result.getMessage());
+            generator.writeFieldName(FIELD_DATA);
+            writeData(generator, result.getData());
+            generator.writeFieldName(FIELD_TIMESTAMP);
+            writeTimestamp(generator, result.getTimestamp());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * 写出未包装的普通对象
+     *
+     * @param value 对象
+     * @param out   输出流
+     */
+    public void writeValue(Object value, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+            writeData(generator, value);
+        }
+    }
+
+    /**
+     * 序列化data，结果可用于计算ETag，并通过 {@link SerializedData} 原样写出
+     *
+     * @param data 响应数据
+     * @return UTF-8编码的JSON
+     */
+    public byte[] serializeData(Object data) throws IOException {
+        if (data instanceof FilteredData filtered) {
+            return sparseWriter.withAttribute(FieldSelection.class, filtered.selection())
+                    .writeValueAsBytes(filtered.data());
+        }
+        return dataWriter.writeValueAsBytes(data);
+    }
+
+    /**
+     * 判断data是否需要逐个元素流式写出
+     */
+    public static boolean isStreamingSource(Class<?> type) {
+        return Stream.class.isAssignableFrom(type)
+                || Iterator.class.isAssignableFrom(type)
+                || Cursor.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 流式写出data为Stream/Iterator/Cursor的结果，写完、出错或客户端断开时都会关闭数据源
+     * <ul>
+     *     <li>JSON：一个信封，data为逐个写出的数组</li>
+     *     <li>NDJSON：每个元素一行，每行都是完整的信封，中途出错时追加一行失败信封</li>
+     * </ul>
+     * 注意：Cursor依赖打开的SqlSession，需要在写出完成前保持事务或会话不关闭
+     *
+     * @param result     data为流式数据源的结果
+     * @param out        输出流
+     * @param ndjson     是否按NDJSON写出
+     * @param flushEvery 每写出多少个元素flush一次
+     */
+    public void writeStreaming(Result<?> result, OutputStream out, boolean ndjson, int flushEvery)
+            throws IOException {
+        Object source = result.getData();
+        int batch = Math.max(1, flushEvery);
+        try {
+            Iterator<?> elements = iterate(source);
+            if (ndjson) {
+                writeNdjson(result, elements, out, batch);
+            } else {
+                writeArray(result, elements, out, batch);
+            }
+        } finally {
+            closeSource(source);
+        }
+    }
+
+    private void writeArray(Result<?> result, Iterator<?> elements, OutputStream out, int flushEvery)
+            throws IOException {
+        EnvelopeFragment fragment = preEncodable && result.getTimestamp() != null
+                ? findFragment(result.getCode(), result.getMessage()) : null;
+        if (fragment != null) {
+            fragment.writePrefix(out);
+        }
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+            if (fragment == null) {
+                generator.writeStartObject();
+                generator.writeFieldName(FIELD_CODE);
+                generator.writeNumber(result.getCode());
+                generator.writeFieldName(FIELD_MESSAGE);
+                generator.writeString(result.getMessage());
+                generator.writeFieldName(FIELD_DATA);
+            }
+            generator.writeStartArray();
+            int count = 0;
+            while (elements.hasNext()) {
+                dataWriter.writeValue(generator, elements.next());
+                if (++count % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            if (fragment == null) {
+                generator.writeFieldName(FIELD_TIMESTAMP);
+                writeTimestamp(generator, result.getTimestamp());
+                generator.writeEndObject();
+            }
+        }
+        if (fragment != null) {
+            fragment.writeSuffix(result.getTimestamp(), out);
+        }
+    }
+
+    private void writeNdjson(Result<?> result, Iterator<?> elements, OutputStream out, int flushEvery)
+            throws IOException {
+        int count = 0;
+        while (true) {
+            Object element;
+            try {
+                if (!elements.hasNext()) {
+                    break;
+                }
+                element = elements.next();
+            } catch (RuntimeException e) {
+                // 响应已经开始输出，只能追加一行失败信封告知客户端
+                log.error("流式读取数据失败，已写出{}条: {}", count, e.getMessage(), e);
+                write(Result.failed(ResultCode.FAILED), out);
+                out.write('\n');
+                break;
+            }
+            write(Result.custom(result.getHttpStatus(), result.getCode(), result.getMessage(), element), out);
+            out.write('\n');
+            if (++count % flushEvery == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private static Iterator<?> iterate(Object source) {
+        if (source instanceof Stream<?> stream) {
+            return stream.iterator();
+        }
+        if (source instanceof Cursor<?> cursor) {
+            return cursor.iterator();
+        }
+        if (source instanceof Iterator<?> iterator) {
+            return iterator;
+        }
+        throw new IllegalArgumentException("不支持流式写出的数据类型: " + source.getClass().getName());
+    }
+
+    private static void closeSource(Object source) {
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("关闭流式数据源失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void writeFragment(EnvelopeFragment fragment, Result<?> result, OutputStream out) throws IOException {
+        Object data = result.getData();
+        if (data == null) {
+            fragment.writeWithoutData(result.getTimestamp(), out);
+            return;
+        }
+        fragment.writePrefix(out);
+        if (data instanceof SerializedData serialized) {
+            out.write(serialized.json());
+            fragment.writeSuffix(result.getTimestamp(), out);
+            return;
+        }
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+            writeData(generator, data);
+        }
+        fragment.writeSuffix(result.getTimestamp(), out);
+    }
+
+    @Nullable
+    private EnvelopeFragment findFragment(int code, String message) {
+        if (message == null) {
+            return null;
+        }
+        EnvelopeFragment[] candidates = fragments.get(code);
+        if (candidates == null) {
+            return null;
+        }
+        for (EnvelopeFragment candidate : candidates) {
+            if (candidate.matches(message)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 预编码每个状态码的默认消息以及各支持语言下的翻译
+     */
+    private static Map<Integer, EnvelopeFragment[]> buildFragments(@Nullable ResultCodeMessages resultMessages) {
+        Map<Integer, EnvelopeFragment[]> table = new HashMap<>();
+        for (ResultCode resultCode : ResultCode.values()) {
+            List<String> messages = new ArrayList<>();
+            messages.add(resultCode.getMessage());
+            if (resultMessages != null) {
+                for (Locale locale : resultMessages.getLocales()) {
+                    String translated = resultMessages.get(resultCode, locale);
+                    if (!messages.contains(translated)) {
+                        messages.add(translated);
+                    }
+                }
+            }
+            table.put(resultCode.getCode(), messages.stream()
+                    .map(message -> new EnvelopeFragment(resultCode.getCode(), message))
+                    .toArray(EnvelopeFragment[]::new));
+        }
+        return Map.copyOf(table);
+    }
+
+    private void writeData(JsonGenerator generator, Object data) throws IOException {
+        if (data == null) {
+            generator.writeNull();
+        } else if (data instanceof String text) {
+            generator.writeString(text);
+        } else if (data instanceof SerializedData serialized) {
+            generator.writeRawValue(new String(serialized.json(), StandardCharsets.UTF_8));
+        } else if (data instanceof FilteredData filtered) {
+            sparseWriter.withAttribute(FieldSelection.class, filtered.selection())
+                    .writeValue(generator, filtered.data());
+        } else {
+            dataWriter.writeValue(generator, data);
+        }
+    }
+
+    /**
+     * 复制一份ObjectMapper并为所有Bean指定稀疏字段集过滤器，不影响应用的ObjectMapper及其序列化器缓存
+     */
+    private static ObjectWriter createSparseWriter(ObjectMapper objectMapper) {
+        ObjectMapper sparseMapper = objectMapper.copy();
+        sparseMapper.setAnnotationIntrospector(AnnotationIntrospector.pair(
+                objectMapper.getSerializationConfig().getAnnotationIntrospector(),
+                new SparseFieldsetFilter.FilterIdIntrospector()));
+        return sparseMapper.writer(SparseFieldsetFilter.FILTER_PROVIDER)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private void writeTimestamp(JsonGenerator generator, Instant timestamp) throws IOException {
+        if (timestamp == null) {
+            generator.writeNull();
+        } else if (isoTimestamp) {
+            generator.writeString(CoarseClock.format(timestamp));
+        } else {
+            objectMapper.writeValue(generator, timestamp);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.mcallzbl.common.interceptor;
+
+/**
+ * 已序列化的data
+ * 计算ETag时已经序列化过的data，由 {@link ResultEnvelopeWriter} 原样写出
+ *
+ * @param json UTF-8编码的JSON
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+record SerializedData(byte[] json) {
+}
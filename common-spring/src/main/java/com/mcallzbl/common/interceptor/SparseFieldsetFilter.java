@@ -0,0 +1,68 @@
+package com.mcallzbl.common.interceptor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * 稀疏字段集过滤器
+ * 全局只有一个实例，当前层级的 {@link FieldSelection} 节点保存在序列化调用的属性中：
+ * 输出某个字段前切换到它的子节点，输出后恢复，判断过程只是一次Map查找，不产生额外对象
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+final class SparseFieldsetFilter extends SimpleBeanPropertyFilter {
+    static final String FILTER_ID = "common.sparseFieldset";
+
+    static final SparseFieldsetFilter INSTANCE = new SparseFieldsetFilter();
+
+    /**
+     * 未显式声明 {@code @JsonFilter} 的Bean都使用本过滤器
+     */
+    static final SimpleFilterProvider FILTER_PROVIDER = new SimpleFilterProvider()
+            .addFilter(FILTER_ID, INSTANCE)
+            .setFailOnUnknownId(false);
+
+    private SparseFieldsetFilter() {
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                 PropertyWriter writer) throws Exception {
+        FieldSelection current = (FieldSelection) provider.getAttribute(FieldSelection.class);
+        if (current == null || current == FieldSelection.ALL) {
+            writer.serializeAsField(pojo, generator, provider);
+            return;
+        }
+        FieldSelection child = current.child(writer.getName());
+        if (child == null) {
+            if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+            return;
+        }
+        provider.setAttribute(FieldSelection.class, child);
+        try {
+            writer.serializeAsField(pojo, generator, provider);
+        } finally {
+            provider.setAttribute(FieldSelection.class, current);
+        }
+    }
+
+    /**
+     * 为所有Bean类型指定过滤器ID，与原有的注解解析器组合使用，原有配置优先
+     */
+    static final class FilterIdIntrospector extends NopAnnotationIntrospector {
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            return annotated instanceof AnnotatedClass ? FILTER_ID : null;
+        }
+    }
+}
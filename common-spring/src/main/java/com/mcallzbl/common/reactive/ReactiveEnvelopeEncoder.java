@@ -0,0 +1,96 @@
+package com.mcallzbl.common.reactive;
+
+import com.mcallzbl.common.Result;
+import com.mcallzbl.common.interceptor.ResultEnvelopeWriter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * WebFlux统一响应信封编码器
+ * 复用 {@link ResultEnvelopeWriter} 把Result直接写入DataBuffer，
+ * 供响应包装器和异常处理器共用。
+ * 数据为Stream/Iterator/Cursor时遍历可能阻塞（如JDBC游标），编码切换到boundedElastic线程池执行，不占用事件循环线程
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public class ReactiveEnvelopeEncoder {
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final ResultEnvelopeWriter envelopeWriter;
+
+    public ReactiveEnvelopeEncoder(ResultEnvelopeWriter envelopeWriter) {
+        this.envelopeWriter = envelopeWriter;
+    }
+
+    /**
+     * 以JSON写出统一响应信封
+     *
+     * @param response 响应
+     * @param result   响应结果
+     * @return 写出完成信号
+     */
+    public Mono<Void> write(ServerHttpResponse response, Result<?> result) {
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(encodeAsync(response.bufferFactory(), result, false));
+    }
+
+    /**
+     * 延迟编码统一响应信封，数据为流式来源时在boundedElastic线程池中编码
+     *
+     * @param bufferFactory 缓冲区工厂
+     * @param result        响应结果
+     * @param newline       是否追加换行（NDJSON）
+     * @return 编码后的缓冲区
+     */
+    public Mono<DataBuffer> encodeAsync(DataBufferFactory bufferFactory, Result<?> result, boolean newline) {
+        Mono<DataBuffer> encoded = Mono.fromCallable(() -> encode(bufferFactory, result, newline));
+        Object data = result.getData();
+        if (data != null && ResultEnvelopeWriter.isStreamingSource(data.getClass())) {
+            return encoded.subscribeOn(Schedulers.boundedElastic());
+        }
+        return encoded;
+    }
+
+    /**
+     * 在当前线程把统一响应信封编码为DataBuffer，数据为流式来源时会阻塞，事件循环线程上应使用 {@link #encodeAsync}
+     *
+     * @param bufferFactory 缓冲区工厂
+     * @param result        响应结果
+     * @param newline       是否追加换行（NDJSON）
+     * @return 编码后的缓冲区
+     */
+    public DataBuffer encode(DataBufferFactory bufferFactory, Result<?> result, boolean newline) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_SIZE);
+        boolean release = true;
+        try (OutputStream out = buffer.asOutputStream()) {
+            Object data = result.getData();
+            if (data != null && ResultEnvelopeWriter.isStreamingSource(data.getClass())) {
+                envelopeWriter.writeStreaming(result, out, false, Integer.MAX_VALUE);
+            } else {
+                envelopeWriter.write(result, out);
+            }
+            if (newline) {
+                out.write('\n');
+            }
+            release = false;
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("编码统一响应信封失败", e);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.mcallzbl.common.reactive;
+
+import com.mcallzbl.common.BusinessException;
+import com.mcallzbl.common.Result;
+import com.mcallzbl.common.exception.BusinessExceptionLogger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.MethodNotAllowedException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux全局异常处理器
+ * 与Spring MVC的 {@link com.mcallzbl.common.exception.GlobalExceptionHandler} 对应，
+ * 把异常转换为统一响应信封，排在Spring Boot默认的错误处理器之前
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class ReactiveExceptionHandler implements WebExceptionHandler, Ordered {
+    private final ReactiveEnvelopeEncoder envelopeEncoder;
+    private final BusinessExceptionLogger businessExceptionLogger;
+
+    public ReactiveExceptionHandler(ReactiveEnvelopeEncoder envelopeEncoder,
+                                    BusinessExceptionLogger businessExceptionLogger) {
+        this.envelopeEncoder = envelopeEncoder;
+        this.businessExceptionLogger = businessExceptionLogger;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> handle(@NonNull ServerWebExchange exchange, @NonNull Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.error(ex);
+        }
+        Result<?> result = toResult(ex, exchange.getRequest().getPath().value());
+        response.setStatusCode(result.getHttpStatus());
+        return envelopeEncoder.write(response, result);
+    }
+
+    /**
+     * Spring Boot的DefaultErrorWebExceptionHandler为-1
+     */
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+
+    private Result<?> toResult(Throwable ex, String path) {
+        if (ex instanceof BusinessException e) {
+            businessExceptionLogger.log(e, path);
+            return Result.failed(e);
+        }
+        if (ex instanceof WebExchangeBindException e) {
+            log.error("Bind Exception - Request URI: {}", path, e);
+            String errorMessage = e.getBindingResult().getFieldErrors().stream()
+                    .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                    .reduce((msg1, msg2) -> msg1 + "; " + msg2)
+                    .orElse("参数校验失败");
+            return Result.validationFailed(errorMessage);
+        }
+        if (ex instanceof ServerWebInputException e) {
+            log.error("Server Web Input Exception - Request URI: {}", path, e);
+            return Result.validationFailed("请求体格式错误或缺失");
+        }
+        if (ex instanceof MethodNotAllowedException e) {
+            log.error("Method Not Supported - Request URI: {} - Method: {}", path, e.getHttpMethod(), e);
+            return Result.failed(HttpStatus.METHOD_NOT_ALLOWED, "请求方法不支持");
+        }
+        if (ex instanceof UnsupportedMediaTypeStatusException e) {
+            log.error("Media Type Not Supported - Request URI: {}", path, e);
+            return Result.failed(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "不支持的媒体类型");
+        }
+        if (ex instanceof ResponseStatusException e) {
+            HttpStatus status = HttpStatus.resolve(e.getStatusCode().value());
+            if (status == HttpStatus.NOT_FOUND) {
+                log.warn("Resource Not Found - Request URI: {}", path);
+                return Result.notFound("资源不存在");
+            }
+            log.error("Response Status Exception - Request URI: {} - Status: {}", path, e.getStatusCode(), e);
+            return Result.failed(status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR,
+                    e.getReason() != null ? e.getReason() : e.getMessage());
+        }
+        if (ex instanceof IllegalArgumentException) {
+            log.error("Illegal Argument Exception - Message: {} - Request URI: {}", ex.getMessage(), path, ex);
+            return Result.validationFailed(ex.getMessage());
+        }
+        if (ex instanceof NullPointerException) {
+            log.error("Null Pointer Exception - Request URI: {}", path, ex);
+            return Result.failed(HttpStatus.INTERNAL_SERVER_ERROR, "系统内部错误");
+        }
+        log.error("System Exception - Message: {} - Request URI: {}", ex.getMessage(), path, ex);
+        return Result.failed(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+    }
+}
@@ -0,0 +1,96 @@
+package com.mcallzbl.common.reactive;
+
+import com.mcallzbl.common.Result;
+import com.mcallzbl.common.interceptor.ResponseWrapDecider;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.reactive.result.method.annotation.ResponseBodyResultHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux全局响应包装器
+ * 与Spring MVC的 {@link com.mcallzbl.common.interceptor.GlobalResponseWrapper} 对应，
+ * 按相同的 {@code @ResponseWrapper}/{@code @NoResponseWrapper} 规则包装返回值：
+ * <ul>
+ *     <li>普通对象和Mono：包装为一个信封</li>
+ *     <li>Flux：收集为列表后包装为一个信封；客户端接受 application/x-ndjson 时每个元素一行信封并逐行flush</li>
+ * </ul>
+ * 排在默认的ResponseBodyResultHandler之前，不需要包装的返回值仍由默认处理器处理
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public class ReactiveResponseWrapper extends ResponseBodyResultHandler {
+    private final ReactiveEnvelopeEncoder envelopeEncoder;
+    private final ResponseWrapDecider wrapDecider = new ResponseWrapDecider();
+
+    public ReactiveResponseWrapper(ReactiveEnvelopeEncoder envelopeEncoder,
+                                   List<HttpMessageWriter<?>> writers,
+                                   RequestedContentTypeResolver contentTypeResolver,
+                                   ReactiveAdapterRegistry adapterRegistry) {
+        super(writers, contentTypeResolver, adapterRegistry);
+        this.envelopeEncoder = envelopeEncoder;
+        // 默认的ResponseBodyResultHandler为100
+        setOrder(99);
+    }
+
+    @Override
+    public boolean supports(@NonNull HandlerResult result) {
+        return super.supports(result) && wrapDecider.shouldWrap(result.getReturnTypeSource());
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> handleResult(@NonNull ServerWebExchange exchange, @NonNull HandlerResult result) {
+        Object returnValue = result.getReturnValue();
+        ServerHttpResponse response = exchange.getResponse();
+        ReactiveAdapter adapter = getAdapter(result);
+
+        if (adapter == null) {
+            return envelopeEncoder.write(response, toResult(returnValue, response));
+        }
+        if (returnValue == null) {
+            return envelopeEncoder.write(response, Result.success());
+        }
+        if (adapter.isMultiValue()) {
+            Flux<?> elements = Flux.from(adapter.toPublisher(returnValue));
+            if (acceptsNdjson(exchange)) {
+                response.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+                return response.writeAndFlushWith(elements.map(element ->
+                        envelopeEncoder.encodeAsync(response.bufferFactory(), Result.success(element), true)));
+            }
+            return elements.collectList()
+                    .flatMap(list -> envelopeEncoder.write(response, Result.success(list)));
+        }
+        return Mono.from(adapter.toPublisher(returnValue))
+                .map(value -> toResult(value, response))
+                .defaultIfEmpty(Result.success())
+                .flatMap(envelope -> envelopeEncoder.write(response, envelope));
+    }
+
+    private static Result<?> toResult(Object value, ServerHttpResponse response) {
+        if (value instanceof Result<?> original) {
+            // 设置HTTP状态码
+            response.setStatusCode(original.getHttpStatus());
+            return original;
+        }
+        return Result.success(value);
+    }
+
+    private static boolean acceptsNdjson(ServerWebExchange exchange) {
+        return exchange.getRequest().getHeaders().getAccept().stream()
+                .anyMatch(mediaType -> !mediaType.isWildcardSubtype()
+                        && MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType));
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author mcallzbl
@@ -17,6 +19,16 @@ import java.util.Locale;
 @Slf4j
 @Component
 public abstract class AbstractI18nUtils {
+    /**
+     * 语言代码解析结果缓存上限，超过上限时整体清空
+     */
+    private static final int MAX_CACHED_LOCALES = 256;
+
+    /**
+     * 语言代码到Locale的解析结果，各子类共享
+     */
+    private static final Map<String, Locale> LOCALE_CACHE = new ConcurrentHashMap<>();
+
     private final MessageSource messageSource;
 
     public AbstractI18nUtils(MessageSource messageSource) {
@@ -55,7 +67,7 @@ public abstract class AbstractI18nUtils {
         try {
             return messageSource.getMessage(code, null, locale);
         } catch (NoSuchMessageException e) {
-            log.warn("Failed to get message for code: {}, locale: {}", code, locale, e);
+            log.warn("Failed to get message for code: {}, locale: {}", code, locale);
             return code; // 如果找不到消息，返回code本身
         }
     }
@@ -72,7 +84,7 @@ public abstract class AbstractI18nUtils {
         try {
             return messageSource.getMessage(code, args, locale);
         } catch (Exception e) {
-            log.warn("Failed to get message for code: {}, locale: {}, args: {}", code, locale, args, e);
+            log.warn("Failed to get message for code: {}, locale: {}, args: {} - {}", code, locale, args, e.getMessage());
             return code; // 如果找不到消息，返回code本身
         }
     }
@@ -103,15 +115,28 @@ public abstract class AbstractI18nUtils {
     }
 
     /**
-     * 解析语言代码为Locale对象
+     * 解析语言代码为Locale对象，解析结果会被缓存
      *
      * @param language 语言代码（如 "zh_CN", "en", "ja_JP"）
      * @return Locale对象
      */
-    private Locale parseLocale(String language) {
+    public Locale parseLocale(String language) {
         if (!StringUtils.hasText(language)) {
             return Locale.getDefault();
         }
+        Locale cached = LOCALE_CACHE.get(language);
+        if (cached != null) {
+            return cached;
+        }
+        Locale locale = doParseLocale(language);
+        if (LOCALE_CACHE.size() >= MAX_CACHED_LOCALES) {
+            LOCALE_CACHE.clear();
+        }
+        LOCALE_CACHE.put(language, locale);
+        return locale;
+    }
+
+    private static Locale doParseLocale(String language) {
         try {
             String[] parts = language.split("_");
             if (parts.length == 1) {
@@ -122,7 +147,7 @@ public abstract class AbstractI18nUtils {
                 return new Locale(parts[0], parts[1], parts[2]);
             }
         } catch (Exception e) {
-            log.warn("Failed to parse locale: {}", language, e);
+            log.warn("Failed to parse locale: {}", language);
             return Locale.getDefault();
         }
     }
@@ -0,0 +1,199 @@
+package com.mcallzbl.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 粗粒度时钟
+ * 由一个后台线程按精度周期刷新当前时间，读取时只是一次volatile读；
+ * 同一刻度内复用同一个Instant及其预先格式化好的ISO-8601字符串。
+ * 精度为0时退化为系统时钟，每次读取都调用 {@link Instant#now()}
+ * <p>
+ * 初始为系统时钟，不启动后台线程；调用 {@link #setPrecision(Duration)} 设置正精度时才启动刷新线程，
+ * 通常由Spring中的 {@link TimestampSource} Bean完成，未使用Spring时仅引用 {@link com.mcallzbl.common.Result} 不会创建线程
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public final class CoarseClock extends Clock {
+    public static final Duration DEFAULT_PRECISION = Duration.ofMillis(1);
+
+    private static final CoarseClock INSTANCE = new CoarseClock();
+
+    private volatile Tick current;
+    private volatile long precisionMillis;
+    private Thread ticker;
+
+    private CoarseClock() {
+    }
+
+    public static CoarseClock getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 当前时间（按精度截断）
+     */
+    public static Instant now() {
+        return INSTANCE.instant();
+    }
+
+    /**
+     * 格式化时间戳，属于当前刻度时直接返回缓存的字符串
+     *
+     * @param instant 时间
+     * @return ISO-8601字符串，与 {@link Instant#toString()} 一致
+     */
+    public static String format(Instant instant) {
+        Tick tick = INSTANCE.current;
+        return tick != null && tick.instant == instant ? tick.text : instant.toString();
+    }
+
+    /**
+     * 设置时钟精度，0表示不缓存、直接使用系统时钟
+     *
+     * @param precision 精度，最小1毫秒
+     */
+    public static void setPrecision(Duration precision) {
+        INSTANCE.applyPrecision(precision);
+    }
+
+    public static Duration getPrecision() {
+        return Duration.ofMillis(INSTANCE.precisionMillis);
+    }
+
+    @Override
+    public Instant instant() {
+        Tick tick = current;
+        return tick != null ? tick.instant : Instant.now();
+    }
+
+    @Override
+    public long millis() {
+        Tick tick = current;
+        return tick != null ? tick.millis : System.currentTimeMillis();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    /**
+     * 返回指定时区的视图，读取的仍是同一个刻度
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return ZoneOffset.UTC.equals(zone) ? this : new Zoned(zone);
+    }
+
+    private synchronized void applyPrecision(Duration precision) {
+        long millis = precision == null || precision.isNegative() ? 0 : precision.toMillis();
+        if (precision != null && !precision.isZero() && !precision.isNegative() && millis == 0) {
+            millis = 1;
+        }
+        precisionMillis = millis;
+        if (millis == 0) {
+            current = null;
+            return;
+        }
+        refresh();
+        if (ticker == null) {
+            ticker = new Thread(this::tickLoop, "coarse-clock");
+            ticker.setDaemon(true);
+            ticker.start();
+            log.debug("粗粒度时钟已启动，精度: {}ms", millis);
+        }
+    }
+
+    private void tickLoop() {
+        while (true) {
+            long millis = precisionMillis;
+            if (millis == 0) {
+                // 已切换为系统时钟，暂停刷新直到重新设置精度
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                continue;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        long step = precisionMillis;
+        if (step == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long truncated = now - now % step;
+        Tick tick = current;
+        if (tick == null || tick.millis != truncated) {
+            current = new Tick(truncated);
+        }
+    }
+
+    /**
+     * 指定时区的视图，时间读取委托给单例
+     */
+    private static final class Zoned extends Clock {
+        private final ZoneId zone;
+
+        private Zoned(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public Instant instant() {
+            return INSTANCE.instant();
+        }
+
+        @Override
+        public long millis() {
+            return INSTANCE.millis();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return INSTANCE.withZone(zone);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Zoned other && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return zone.hashCode();
+        }
+    }
+
+    /**
+     * 一个刻度的时间快照
+     */
+    private static final class Tick {
+        private final long millis;
+        private final Instant instant;
+        private final String text;
+
+        private Tick(long millis) {
+            this.millis = millis;
+            this.instant = Instant.ofEpochMilli(millis);
+            this.text = instant.toString();
+        }
+    }
+}
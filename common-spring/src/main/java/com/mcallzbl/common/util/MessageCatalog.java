@@ -0,0 +1,220 @@
+package com.mcallzbl.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 预编译的国际化消息目录
+ * 启动时一次性加载类路径上 {@code <basename>*.properties} 的所有语言文件，
+ * 按Locale合并为不可变的消息表并预编译MessageFormat，查找时只是一次Map读取，没有重新加载检查和锁。
+ * 语言回退顺序与ResourceBundle一致（ja_JP → ja → 默认文件），不回退到系统语言。
+ * 调用 {@link #reload()} 重新加载，新的消息表整体替换旧表，再通知通过 {@link #addReloadListener(Runnable)} 注册的监听器，
+ * 由消息派生出的缓存（例如状态码消息表）在监听器中重建
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class MessageCatalog extends AbstractMessageSource {
+    /**
+     * 按请求Locale解析出的消息表缓存上限，Locale来自请求头，超过上限时整体清空
+     */
+    private static final int MAX_RESOLVED_LOCALES = 64;
+
+    private final String basename;
+    private final Pattern fileNamePattern;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param basename 类路径下的基础名称，例如 {@code i18n/messages}
+     */
+    public MessageCatalog(String basename) {
+        this.basename = basename;
+        String fileName = StringUtils.getFilename(basename);
+        this.fileNamePattern = Pattern.compile(Pattern.quote(fileName) + "(?:_([A-Za-z]{2,3}(?:_[A-Za-z0-9]+)*))?\\.properties");
+        this.snapshot = load();
+    }
+
+    /**
+     * 重新加载所有语言文件，加载完成后原子替换
+     */
+    public void reload() {
+        this.snapshot = load();
+        log.info("国际化消息已重新加载: {}", basename);
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * 注册重新加载监听器，在新的消息表生效后调用
+     *
+     * @param listener 监听器
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * 存在独立语言文件的Locale（不包括默认文件）
+     */
+    public Set<Locale> getLocales() {
+        return snapshot.bundles().keySet().stream()
+                .filter(locale -> !Locale.ROOT.equals(locale))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 指定Locale下合并回退后的全部消息
+     *
+     * @param locale Locale
+     * @return 不可变的消息表
+     */
+    public Map<String, String> getMessages(Locale locale) {
+        return snapshot.catalog(locale).texts();
+    }
+
+    /**
+     * 指定Locale自己的语言文件（不含默认文件）中的全部消息，用于检查翻译是否完整
+     *
+     * @param locale Locale
+     * @return 不可变的消息表，没有对应的语言文件时为空
+     */
+    public Map<String, String> getLocalizedMessages(Locale locale) {
+        Map<String, String> merged = new HashMap<>();
+        for (Locale candidate : Catalog.fallbackChain(locale)) {
+            Map<String, String> bundle = Locale.ROOT.equals(candidate) ? null : snapshot.bundles().get(candidate);
+            if (bundle != null) {
+                merged.putAll(bundle);
+            }
+        }
+        return Map.copyOf(merged);
+    }
+
+    @Override
+    protected String resolveCodeWithoutArguments(@NonNull String code, @NonNull Locale locale) {
+        return snapshot.catalog(locale).texts().get(code);
+    }
+
+    @Override
+    protected MessageFormat resolveCode(@NonNull String code, @NonNull Locale locale) {
+        return snapshot.catalog(locale).formats().get(code);
+    }
+
+    private Snapshot load() {
+        Map<Locale, Map<String, String>> bundles = new HashMap<>();
+        String parent = basename.contains("/") ? basename.substring(0, basename.lastIndexOf('/') + 1) : "";
+        try {
+            Resource[] resources = resourceResolver.getResources(
+                    ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + parent + "*.properties");
+            for (Resource resource : resources) {
+                String fileName = resource.getFilename();
+                Matcher matcher = fileName != null ? fileNamePattern.matcher(fileName) : null;
+                if (matcher == null || !matcher.matches()) {
+                    continue;
+                }
+                Locale locale = matcher.group(1) != null ? StringUtils.parseLocale(matcher.group(1)) : Locale.ROOT;
+                Properties properties = PropertiesLoaderUtils.loadProperties(
+                        new EncodedResource(resource, StandardCharsets.UTF_8));
+                // 多个jar中存在同名文件时，以类路径上靠前的为准
+                Map<String, String> bundle = bundles.computeIfAbsent(locale, key -> new HashMap<>());
+                properties.stringPropertyNames().forEach(key -> bundle.putIfAbsent(key, properties.getProperty(key)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("加载国际化消息失败: " + basename, e);
+        }
+        Map<Locale, Map<String, String>> frozen = new HashMap<>();
+        bundles.forEach((locale, bundle) -> frozen.put(locale, Map.copyOf(bundle)));
+        Snapshot loaded = new Snapshot(Map.copyOf(frozen), new ConcurrentHashMap<>());
+        // 预先解析各语言文件对应的Locale，请求时直接命中
+        frozen.keySet().forEach(loaded::catalog);
+        log.info("加载国际化消息 {}，语言: {}", basename, frozen.keySet());
+        return loaded;
+    }
+
+    /**
+     * 一次加载的结果：各语言文件的原始内容，以及按请求Locale解析并合并后的消息表
+     */
+    private record Snapshot(Map<Locale, Map<String, String>> bundles, Map<Locale, Catalog> resolved) {
+        Catalog catalog(Locale locale) {
+            Catalog catalog = resolved.get(locale);
+            if (catalog == null) {
+                catalog = Catalog.merge(bundles, locale);
+                if (resolved.size() >= MAX_RESOLVED_LOCALES) {
+                    resolved.clear();
+                }
+                resolved.put(locale, catalog);
+            }
+            return catalog;
+        }
+    }
+
+    /**
+     * 合并回退链后的消息表及预编译的MessageFormat
+     */
+    private record Catalog(Map<String, String> texts, Map<String, MessageFormat> formats) {
+        static Catalog merge(Map<Locale, Map<String, String>> bundles, Locale locale) {
+            Map<String, String> texts = new LinkedHashMap<>();
+            for (Locale candidate : fallbackChain(locale)) {
+                Map<String, String> bundle = bundles.get(candidate);
+                if (bundle != null) {
+                    texts.putAll(bundle);
+                }
+            }
+            Map<String, MessageFormat> formats = new HashMap<>();
+            texts.forEach((code, text) -> {
+                try {
+                    formats.put(code, new MessageFormat(text, locale));
+                } catch (IllegalArgumentException e) {
+                    log.warn("消息格式错误，带参数时无法格式化: {} = {}", code, text);
+                }
+            });
+            return new Catalog(Map.copyOf(texts), Map.copyOf(formats));
+        }
+
+        /**
+         * 从默认文件到最具体的Locale，后面的覆盖前面的
+         */
+        private static List<Locale> fallbackChain(Locale locale) {
+            List<Locale> chain = new ArrayList<>(4);
+            chain.add(Locale.ROOT);
+            if (!locale.getLanguage().isEmpty()) {
+                chain.add(new Locale(locale.getLanguage()));
+                if (!locale.getCountry().isEmpty()) {
+                    chain.add(new Locale(locale.getLanguage(), locale.getCountry()));
+                    if (!locale.getVariant().isEmpty()) {
+                        chain.add(new Locale(locale.getLanguage(), locale.getCountry(), locale.getVariant()));
+                    }
+                }
+            }
+            return chain;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mcallzbl.common.util;
+
+import com.mcallzbl.common.ResultCode;
+import com.mcallzbl.common.config.LocaleConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 状态码消息表
+ * 启动时为每个支持的语言预先查好所有 {@link ResultCode} 的消息，运行时只是一次EnumMap读取。
+ * 支持的语言缺少任何一个状态码的翻译时启动失败，而不是在请求时才发现。
+ * 消息源是 {@link MessageCatalog} 时随它重新加载而重建，重建完成后通知通过 {@link #addReloadListener(Runnable)} 注册的监听器
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+public class ResultCodeMessages {
+    /**
+     * 非支持语言的消息表缓存上限，超过上限时整体清空
+     */
+    private static final int MAX_RESOLVED_LOCALES = 64;
+
+    private final MessageSource messageSource;
+    private final List<Locale> locales;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot;
+
+    public ResultCodeMessages(MessageSource messageSource) {
+        this(messageSource, LocaleConfig.SUPPORTED_LOCALES);
+    }
+
+    /**
+     * @param messageSource 消息源
+     * @param locales       必须完整翻译的语言
+     * @throws IllegalStateException 存在缺少翻译的状态码
+     */
+    public ResultCodeMessages(MessageSource messageSource, List<Locale> locales) {
+        this.messageSource = messageSource;
+        this.locales = List.copyOf(locales);
+        this.snapshot = build();
+        if (messageSource instanceof MessageCatalog catalog) {
+            catalog.addReloadListener(this::reload);
+        }
+    }
+
+    /**
+     * 按当前的消息源重建消息表；新的消息缺少翻译时保留旧表
+     */
+    public void reload() {
+        try {
+            this.snapshot = build();
+        } catch (IllegalStateException e) {
+            log.error("重建状态码消息表失败，继续使用旧的消息表: {}", e.getMessage());
+            return;
+        }
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * 注册重建监听器，在新的消息表生效后调用
+     *
+     * @param listener 监听器
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * 获取状态码在指定语言下的消息
+     * 非支持的语言优先使用同一语种的支持语言，否则从消息源查询一次后缓存
+     *
+     * @param resultCode 状态码
+     * @param locale     语言
+     * @return 消息
+     */
+    public String get(ResultCode resultCode, Locale locale) {
+        Snapshot current = snapshot;
+        Map<ResultCode, String> table = current.tables().get(locale);
+        if (table == null) {
+            table = resolve(current, locale);
+        }
+        return table.get(resultCode);
+    }
+
+    /**
+     * 完整翻译的语言
+     */
+    public List<Locale> getLocales() {
+        return List.copyOf(snapshot.tables().keySet());
+    }
+
+    private Snapshot build() {
+        Map<Locale, Map<ResultCode, String>> built = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Locale locale : locales) {
+            // 语言有自己的消息文件时，只认该文件中的翻译，不接受回退到默认文件的消息
+            Map<String, String> localized = messageSource instanceof MessageCatalog catalog
+                    ? catalog.getLocalizedMessages(locale) : Map.of();
+            Map<ResultCode, String> table = new EnumMap<>(ResultCode.class);
+            for (ResultCode resultCode : ResultCode.values()) {
+                String message = localized.isEmpty()
+                        ? messageSource.getMessage(resultCode.getMessageKey(), null, null, locale)
+                        : localized.get(resultCode.getMessageKey());
+                if (message == null) {
+                    missing.add(locale + ":" + resultCode.getMessageKey());
+                } else {
+                    table.put(resultCode, message);
+                }
+            }
+            built.put(locale, Collections.unmodifiableMap(table));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("状态码缺少翻译: " + missing);
+        }
+        log.info("状态码消息表已构建，语言: {}", built.keySet());
+        return new Snapshot(Collections.unmodifiableMap(built), new ConcurrentHashMap<>());
+    }
+
+    private Map<ResultCode, String> resolve(Snapshot current, Locale locale) {
+        Map<Locale, Map<ResultCode, String>> resolved = current.resolved();
+        Map<ResultCode, String> table = resolved.get(locale);
+        if (table != null) {
+            return table;
+        }
+        for (Map.Entry<Locale, Map<ResultCode, String>> entry : current.tables().entrySet()) {
+            if (entry.getKey().getLanguage().equals(locale.getLanguage())) {
+                table = entry.getValue();
+                break;
+            }
+        }
+        if (table == null) {
+            Map<ResultCode, String> lenient = new EnumMap<>(ResultCode.class);
+            for (ResultCode resultCode : ResultCode.values()) {
+                lenient.put(resultCode, messageSource.getMessage(
+                        resultCode.getMessageKey(), null, resultCode.getMessage(), locale));
+            }
+            table = Collections.unmodifiableMap(lenient);
+        }
+        if (resolved.size() >= MAX_RESOLVED_LOCALES) {
+            resolved.clear();
+        }
+        resolved.put(locale, table);
+        return table;
+    }
+
+    /**
+     * 一次构建的结果：支持语言的消息表，以及按请求语言解析出的消息表缓存
+     */
+    private record Snapshot(Map<Locale, Map<ResultCode, String>> tables,
+                            Map<Locale, Map<ResultCode, String>> resolved) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.mcallzbl.common.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 响应时间戳来源
+ * {@link CoarseClock} 在Spring中的Bean形式。CoarseClock本身是 {@link Clock}，直接注册为Bean会让应用中
+ * 按 {@code Clock} 注入的地方拿到截断后的时间，或与应用自己的Clock Bean冲突，因此只以该类型对外暴露
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public final class TimestampSource {
+
+    /**
+     * @param precision 时钟精度，0表示直接使用系统时钟；设置正精度时启动刷新线程
+     */
+    public TimestampSource(Duration precision) {
+        CoarseClock.setPrecision(precision);
+    }
+
+    /**
+     * 当前时间（按精度截断）
+     */
+    public Instant now() {
+        return CoarseClock.now();
+    }
+
+    /**
+     * 时钟精度
+     */
+    public Duration getPrecision() {
+        return CoarseClock.getPrecision();
+    }
+
+    /**
+     * 底层的粗粒度时钟，需要 {@link Clock} 的地方显式使用
+     */
+    public Clock getClock() {
+        return CoarseClock.getInstance();
+    }
+}
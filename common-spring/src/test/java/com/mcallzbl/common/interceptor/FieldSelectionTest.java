@@ -0,0 +1,113 @@
+package com.mcallzbl.common.interceptor;
+
+import com.mcallzbl.common.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * FieldSelection 表达式解析测试
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+class FieldSelectionTest {
+
+    @Test
+    void selectsTopLevelFields() {
+        FieldSelection selection = FieldSelection.compile("id,username");
+
+        assertThat(selection.child("id")).isSameAs(FieldSelection.ALL);
+        assertThat(selection.child("username")).isSameAs(FieldSelection.ALL);
+        assertThat(selection.child("email")).isNull();
+    }
+
+    @Test
+    void selectsNestedFieldsInParentheses() {
+        FieldSelection profile = FieldSelection.compile("id,profile(avatar,nickname)").child("profile");
+
+        assertThat(profile).isNotNull().isNotSameAs(FieldSelection.ALL);
+        assertThat(profile.child("avatar")).isSameAs(FieldSelection.ALL);
+        assertThat(profile.child("nickname")).isSameAs(FieldSelection.ALL);
+        assertThat(profile.child("bio")).isNull();
+    }
+
+    @Test
+    void dotPathsMergeIntoOneNode() {
+        FieldSelection profile = FieldSelection.compile("profile.avatar,profile.nickname").child("profile");
+
+        assertThat(profile).isNotNull();
+        assertThat(profile.child("avatar")).isSameAs(FieldSelection.ALL);
+        assertThat(profile.child("nickname")).isSameAs(FieldSelection.ALL);
+        assertThat(profile.child("bio")).isNull();
+    }
+
+    @Test
+    void dotPathAndParenthesesCanBeMixed() {
+        FieldSelection profile = FieldSelection.compile("profile.avatar,profile(nickname)").child("profile");
+
+        assertThat(profile).isNotNull();
+        assertThat(profile.child("avatar")).isSameAs(FieldSelection.ALL);
+        assertThat(profile.child("nickname")).isSameAs(FieldSelection.ALL);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"profile,profile(avatar)", "profile(avatar),profile", "profile.avatar,profile"})
+    void wholeFieldWinsOverNestedSelection(String expression) {
+        assertThat(FieldSelection.compile(expression).child("profile")).isSameAs(FieldSelection.ALL);
+    }
+
+    @Test
+    void parsesNestedLists() {
+        FieldSelection a = FieldSelection.compile("a(b(c,d),e),f").child("a");
+
+        assertThat(a).isNotNull();
+        FieldSelection b = a.child("b");
+        assertThat(b).isNotNull().isNotSameAs(FieldSelection.ALL);
+        assertThat(b.child("c")).isSameAs(FieldSelection.ALL);
+        assertThat(b.child("d")).isSameAs(FieldSelection.ALL);
+        assertThat(b.child("e")).isNull();
+        assertThat(a.child("e")).isSameAs(FieldSelection.ALL);
+        assertThat(a.child("f")).isNull();
+    }
+
+    @Test
+    void allowsWhitespaceAroundFields() {
+        FieldSelection selection = FieldSelection.compile(" id , profile( avatar , nickname ) ");
+
+        assertThat(selection.child("id")).isSameAs(FieldSelection.ALL);
+        assertThat(selection.child("profile")).isNotNull();
+        assertThat(selection.child("profile").child("nickname")).isSameAs(FieldSelection.ALL);
+    }
+
+    @Test
+    void allSelectionSelectsEveryChild() {
+        assertThat(FieldSelection.ALL.child("anything")).isSameAs(FieldSelection.ALL);
+    }
+
+    @Test
+    void keepsExpressionAndCachesCompiledTree() {
+        FieldSelection first = FieldSelection.compile("id,profile(avatar)");
+
+        assertThat(first.getExpression()).isEqualTo("id,profile(avatar)");
+        assertThat(FieldSelection.compile("id,profile(avatar)")).isSameAs(first);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", ",", "id,", ",id", "id,,name", "a(", "a(b", "a()", "a(b))", "a)", "a.", "a..b",
+            "a b", "a (b)", "a(b,)", "a*", "a;b"})
+    void rejectsMalformedExpressions(String expression) {
+        assertThatThrownBy(() -> FieldSelection.compile(expression)).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void rejectsOverlongExpressions() {
+        String expression = "a,".repeat(600) + "a";
+
+        assertThatThrownBy(() -> FieldSelection.compile(expression)).isInstanceOf(BusinessException.class);
+    }
+}
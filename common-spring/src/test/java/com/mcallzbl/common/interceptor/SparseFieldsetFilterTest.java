@@ -0,0 +1,110 @@
+package com.mcallzbl.common.interceptor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SparseFieldsetFilter 测试，通过 {@link ResultEnvelopeWriter#serializeData(Object)} 按字段树序列化
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+class SparseFieldsetFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResultEnvelopeWriter writer = new ResultEnvelopeWriter(objectMapper);
+
+    private final UserView user = new UserView(1L, "alice", "alice@example.com",
+            new Profile("a.png", "Alice", "hello"),
+            List.of(new Tag("admin", "red"), new Tag("staff", "blue")));
+
+    @Test
+    void writesOnlySelectedTopLevelFields() throws IOException {
+        assertThat(serialize(user, "id,username"))
+                .isEqualTo(json("{\"id\":1,\"username\":\"alice\"}"));
+    }
+
+    @Test
+    void filtersNestedObject() throws IOException {
+        assertThat(serialize(user, "id,profile(avatar)"))
+                .isEqualTo(json("{\"id\":1,\"profile\":{\"avatar\":\"a.png\"}}"));
+    }
+
+    @Test
+    void wholeNestedObjectWhenSelectedWithoutChildren() throws IOException {
+        assertThat(serialize(user, "profile"))
+                .isEqualTo(json("{\"profile\":{\"avatar\":\"a.png\",\"nickname\":\"Alice\",\"bio\":\"hello\"}}"));
+    }
+
+    @Test
+    void filtersEveryElementOfNestedList() throws IOException {
+        assertThat(serialize(user, "tags(name)"))
+                .isEqualTo(json("{\"tags\":[{\"name\":\"admin\"},{\"name\":\"staff\"}]}"));
+    }
+
+    @Test
+    void filtersEveryElementOfTopLevelList() throws IOException {
+        List<Tag> tags = user.tags();
+
+        assertThat(serialize(tags, "color"))
+                .isEqualTo(json("[{\"color\":\"red\"},{\"color\":\"blue\"}]"));
+    }
+
+    @Test
+    void restoresParentLevelAfterNestedField() throws IOException {
+        assertThat(serialize(user, "profile(avatar),tags(name)"))
+                .isEqualTo(json("{\"profile\":{\"avatar\":\"a.png\"},"
+                        + "\"tags\":[{\"name\":\"admin\"},{\"name\":\"staff\"}]}"));
+    }
+
+    @Test
+    void sameFieldNameAtDifferentLevelsIsFilteredPerLevel() throws IOException {
+        Node tree = new Node("root", new Node("child", null));
+
+        assertThat(serialize(tree, "next(name)"))
+                .isEqualTo(json("{\"next\":{\"name\":\"child\"}}"));
+    }
+
+    @Test
+    void unknownFieldsAreIgnored() throws IOException {
+        assertThat(serialize(user, "id,missing,profile(missing)"))
+                .isEqualTo(json("{\"id\":1,\"profile\":{}}"));
+    }
+
+    @Test
+    void selectionDoesNotLeakIntoLaterSerializations() throws IOException {
+        serialize(user, "id");
+
+        assertThat(objectMapper.readTree(writer.serializeData(user)))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(user)));
+        assertThat(serialize(user, "username"))
+                .isEqualTo(json("{\"username\":\"alice\"}"));
+    }
+
+    private JsonNode serialize(Object data, String fields) throws IOException {
+        return objectMapper.readTree(writer.serializeData(new FilteredData(data, FieldSelection.compile(fields))));
+    }
+
+    private JsonNode json(String text) throws IOException {
+        return objectMapper.readTree(text);
+    }
+
+    public record UserView(Long id, String username, String email, Profile profile, List<Tag> tags) {
+    }
+
+    public record Profile(String avatar, String nickname, String bio) {
+    }
+
+    public record Tag(String name, String color) {
+    }
+
+    public record Node(String name, Node next) {
+    }
+}
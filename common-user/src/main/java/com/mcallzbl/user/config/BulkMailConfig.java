@@ -0,0 +1,42 @@
+package com.mcallzbl.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 批量通知邮件配置
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mail.bulk")
+public class BulkMailConfig {
+
+    /**
+     * 每批发送的邮件数，同一批邮件复用同一个SMTP连接
+     */
+    private int batchSize = 50;
+
+    /**
+     * 每秒最多发送的邮件数，小于等于0表示不限速
+     */
+    private int maxMessagesPerSecond = 20;
+
+    /**
+     * 任务进度（断点）键前缀，完整键为 {prefix}:{jobId}
+     */
+    private String keyPrefix = "mail:bulk";
+
+    /**
+     * 任务进度保留时间（小时）
+     */
+    private long progressTtlHours = 7 * 24;
+
+    /**
+     * 任务锁的过期时间（秒），每发送一批续期一次，节点崩溃后锁在该时间后释放
+     */
+    private long lockTtlSeconds = 120;
+}
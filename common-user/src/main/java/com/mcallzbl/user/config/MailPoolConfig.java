@@ -0,0 +1,50 @@
+package com.mcallzbl.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 邮件连接池配置
+ * 控制SMTP长连接的数量、校验间隔和复用次数
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mail.pool")
+public class MailPoolConfig {
+
+    /**
+     * 是否启用SMTP连接池
+     * 默认开启，避免每封邮件都重新握手和认证
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大连接数（同时保持认证状态的连接数）
+     */
+    private int maxConnections = 4;
+
+    /**
+     * 获取连接的最长等待时间（毫秒）
+     */
+    private long borrowTimeoutMillis = 5000;
+
+    /**
+     * 空闲连接超过该时间（毫秒）后，复用前先发送NOOP校验
+     */
+    private long validateAfterIdleMillis = 10000;
+
+    /**
+     * 空闲连接超过该时间（毫秒）后直接关闭，避免被服务端踢掉
+     */
+    private long maxIdleMillis = 60000;
+
+    /**
+     * 单个连接最多发送的邮件数，超过后重建连接
+     * 部分服务商会限制单连接的发送数量
+     */
+    private int maxMessagesPerConnection = 100;
+}
@@ -0,0 +1,106 @@
+package com.mcallzbl.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 邮件发送队列配置
+ * 基于Redis Stream的出站邮件队列，支持优先级、重试和死信
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mail.queue")
+public class MailQueueConfig {
+
+    /**
+     * 是否启用邮件队列
+     * 默认关闭，关闭时邮件在请求线程中同步发送
+     */
+    private boolean enabled = false;
+
+    /**
+     * 当前节点是否启动消费者
+     * 关闭后当前节点只负责投递，由其他节点发送
+     */
+    private boolean workerEnabled = true;
+
+    /**
+     * Stream键前缀，各优先级队列为 {prefix}:{lane}
+     */
+    private String keyPrefix = "mail:outbox";
+
+    /**
+     * 消费者组名称
+     */
+    private String group = "mail-workers";
+
+    /**
+     * 消费者名称，为空时使用 主机名-进程号
+     */
+    private String consumerName;
+
+    /**
+     * 消费线程数
+     */
+    private int workerThreads = 2;
+
+    /**
+     * 单次拉取的最大消息数
+     */
+    private int batchSize = 10;
+
+    /**
+     * 队列为空时阻塞等待的时间（毫秒）
+     */
+    private long blockMillis = 2000;
+
+    /**
+     * 最大发送次数，超过后进入死信队列
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * 首次重试的退避时间（毫秒），之后每次翻倍
+     */
+    private long initialBackoffMillis = 2000;
+
+    /**
+     * 重试退避时间上限（毫秒）
+     */
+    private long maxBackoffMillis = 60 * 1000;
+
+    /**
+     * 从入队开始允许发送的最长时间（毫秒），超过后不再重试，直接进入死信队列
+     * 应小于验证码有效期（5分钟），避免用户收到已经失效的验证码
+     */
+    private long maxDeliveryMillis = 4 * 60 * 1000;
+
+    /**
+     * 各优先级队列的最大长度（近似裁剪），已确认的消息会立即删除，这里只限制积压
+     */
+    private long laneMaxLength = 100_000;
+
+    /**
+     * 死信队列的最大长度（近似裁剪）
+     */
+    private long deadMaxLength = 10_000;
+
+    /**
+     * 死信队列的保留时间（小时），每次写入死信时刷新
+     */
+    private long deadTtlHours = 7 * 24;
+
+    /**
+     * 其他消费者的未确认消息空闲超过该时间（毫秒）后被接管
+     */
+    private long claimIdleMillis = 60 * 1000;
+
+    /**
+     * 停机时等待在途消息发送完成的最长时间（毫秒）
+     */
+    private long drainTimeoutMillis = 30 * 1000;
+}
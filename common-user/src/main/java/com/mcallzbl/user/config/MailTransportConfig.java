@@ -0,0 +1,55 @@
+package com.mcallzbl.user.config;
+
+import com.mcallzbl.user.mail.PooledJavaMailSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 邮件传输配置类
+ * 使用带连接池的发送器替换Spring Boot默认的JavaMailSender
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.mail.pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MailTransportConfig {
+
+    /**
+     * 创建带连接池的邮件发送器
+     * 连接参数沿用 spring.mail.* 配置
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "spring.mail", name = "host")
+    public PooledJavaMailSender pooledJavaMailSender(MailProperties mailProperties, MailPoolConfig mailPoolConfig) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(mailPoolConfig);
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+        Map<String, String> javaMailProperties = mailProperties.getProperties();
+        if (!javaMailProperties.isEmpty()) {
+            Properties properties = new Properties();
+            properties.putAll(javaMailProperties);
+            sender.setJavaMailProperties(properties);
+        }
+        log.info("注册SMTP连接池邮件发送器，最大连接数: {}", mailPoolConfig.getMaxConnections());
+        return sender;
+    }
+}
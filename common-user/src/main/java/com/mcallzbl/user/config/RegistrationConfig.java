@@ -47,17 +47,33 @@ public class RegistrationConfig {
     private boolean emailRequired = true;
 
     /**
-     * 是否检查用户名唯一性
-     * 默认开启，确保用户名不重复
+     * 是否在注册前检查用户名是否已被占用
+     * 唯一性由数据库唯一约束保证，该开关只控制是否先查询已占用缓存，命中时不访问数据库
      */
     private boolean checkUsernameUnique = true;
 
     /**
-     * 是否检查邮箱唯一性
-     * 默认开启，确保邮箱不重复
+     * 是否在注册前检查邮箱是否已被占用
+     * 唯一性由数据库唯一约束保证，该开关只控制是否先查询已占用缓存，命中时不访问数据库
      */
     private boolean checkEmailUnique = true;
 
+    /**
+     * 是否启用已占用用户名/邮箱的本地缓存
+     * 默认关闭；开启后最近注册成功或因重复被拒绝的用户名/邮箱会被缓存，重复提交直接拒绝
+     */
+    private boolean takenCacheEnabled = false;
+
+    /**
+     * 已占用缓存的最大条目数
+     */
+    private int takenCacheSize = 10_000;
+
+    /**
+     * 已占用缓存的有效期（秒），用户注销后其用户名/邮箱最多在该时间内仍被拒绝
+     */
+    private long takenCacheTtlSeconds = 600;
+
     /**
      * 检查用户名唯一性配置
      */
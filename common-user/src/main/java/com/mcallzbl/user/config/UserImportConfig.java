@@ -0,0 +1,49 @@
+package com.mcallzbl.user.config;
+
+import com.mcallzbl.user.enums.UserImportFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户批量导入配置
+ * 数据源URL需开启 rewriteBatchedStatements=true，批量插入才会被驱动改写为多行INSERT
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user-import")
+public class UserImportConfig {
+
+    /**
+     * 每批处理的记录数，一批对应一次唯一性查询和一次批量插入
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 密码哈希的并行度
+     */
+    private int hashParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 用户名冲突时的最大重试轮数，每轮为所有冲突记录一次性查询一组候选用户名
+     */
+    private int renameRounds = 5;
+
+    /**
+     * 报告中最多保留的失败明细数量，超出部分只计数
+     */
+    private int maxReportedFailures = 1000;
+
+    /**
+     * 命令行导入：待导入的文件路径，设置后应用启动时执行导入
+     */
+    private String file;
+
+    /**
+     * 命令行导入：文件格式
+     */
+    private UserImportFormat format = UserImportFormat.CSV;
+}
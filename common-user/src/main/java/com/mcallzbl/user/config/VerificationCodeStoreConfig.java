@@ -0,0 +1,56 @@
+package com.mcallzbl.user.config;
+
+import com.mcallzbl.user.verification.HybridVerificationCodeStore;
+import com.mcallzbl.user.verification.InMemoryVerificationCodeStore;
+import com.mcallzbl.user.verification.RedisVerificationCodeStore;
+import com.mcallzbl.user.verification.VerificationCodeStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * 验证码存储配置类
+ * 根据 app.verification.store 选择存储实现，应用自行声明 {@link VerificationCodeStore} 时不再注册
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Configuration
+public class VerificationCodeStoreConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(VerificationCodeStore.class)
+    @ConditionalOnProperty(prefix = "app.verification", name = "store", havingValue = "redis", matchIfMissing = true)
+    public VerificationCodeStore redisVerificationCodeStore(RedisConnectionFactory redisConnectionFactory) {
+        RedisVerificationCodeStore store = new RedisVerificationCodeStore(redisConnectionFactory);
+        store.preloadScripts();
+        log.info("验证码存储: Redis");
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(VerificationCodeStore.class)
+    @ConditionalOnProperty(prefix = "app.verification", name = "store", havingValue = "memory")
+    public VerificationCodeStore inMemoryVerificationCodeStore(VerificationConfig verificationConfig) {
+        log.info("验证码存储: 进程内，最大条目数: {}", verificationConfig.getMaxLocalEntries());
+        return new InMemoryVerificationCodeStore(
+                verificationConfig.getMaxLocalEntries(), verificationConfig.getExpiryTickMillis());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(VerificationCodeStore.class)
+    @ConditionalOnProperty(prefix = "app.verification", name = "store", havingValue = "hybrid")
+    public VerificationCodeStore hybridVerificationCodeStore(RedisConnectionFactory redisConnectionFactory,
+                                                             VerificationConfig verificationConfig) {
+        RedisVerificationCodeStore redisStore = new RedisVerificationCodeStore(redisConnectionFactory);
+        redisStore.preloadScripts();
+        log.info("验证码存储: Redis + 进程内");
+        return new HybridVerificationCodeStore(redisStore, new InMemoryVerificationCodeStore(
+                verificationConfig.getMaxLocalEntries(), verificationConfig.getExpiryTickMillis()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.mcallzbl.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 验证码存储配置
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.verification")
+public class VerificationConfig {
+
+    /**
+     * 存储类型：redis（默认，多节点共享）、memory（进程内，适用于单节点）、hybrid（以Redis为准，Redis不可用时使用进程内存储）
+     */
+    private StoreType store = StoreType.REDIS;
+
+    /**
+     * 进程内存储的最大验证码数量
+     */
+    private int maxLocalEntries = 100_000;
+
+    /**
+     * 进程内存储清理过期条目的时间轮刻度（毫秒），必须大于0
+     */
+    private long expiryTickMillis = 1000;
+
+    public enum StoreType {
+        REDIS,
+        MEMORY,
+        HYBRID
+    }
+}
@@ -1,5 +1,6 @@
 package com.mcallzbl.user.controller;
 
+import com.mcallzbl.common.annotation.ConditionalGet;
 import com.mcallzbl.common.annotation.ResponseWrapper;
 import com.mcallzbl.user.pojo.vo.UserVO;
 import com.mcallzbl.user.service.UserService;
@@ -37,12 +38,14 @@ public class UserController {
      * @return 当前登录用户信息
      */
     @GetMapping("/me")
+    @ConditionalGet
     @Operation(
             summary = "获取当前用户信息",
             description = "获取当前登录用户的详细信息，包括基本信息、状态、登录记录等"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "获取成功"),
+            @ApiResponse(responseCode = "304", description = "用户信息未变化（If-None-Match命中ETag）"),
             @ApiResponse(responseCode = "401", description = "用户未登录或Token已过期"),
             @ApiResponse(responseCode = "403", description = "用户权限不足"),
             @ApiResponse(responseCode = "500", description = "服务器内部错误")
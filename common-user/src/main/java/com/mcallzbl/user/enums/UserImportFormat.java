@@ -0,0 +1,20 @@
+package com.mcallzbl.user.enums;
+
+/**
+ * 用户导入文件格式
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+public enum UserImportFormat {
+
+    /**
+     * CSV，首行为表头
+     */
+    CSV,
+
+    /**
+     * 每行一个JSON对象
+     */
+    JSONL
+}
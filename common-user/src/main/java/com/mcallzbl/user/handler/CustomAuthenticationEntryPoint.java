@@ -1,12 +1,11 @@
 package com.mcallzbl.user.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcallzbl.common.ResultCode;
-import com.mcallzbl.common.dto.CommonResultTransferVO;
+import com.mcallzbl.common.interceptor.EnvelopeFragment;
+import com.mcallzbl.common.interceptor.ResultEnvelopeWriter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
@@ -24,10 +23,19 @@ import java.io.IOException;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
-    private final ObjectMapper objectMapper;
+    private final ResultEnvelopeWriter envelopeWriter;
+
+    /**
+     * 响应内容固定，启动时预编码，写出时只需补充时间戳
+     */
+    private final EnvelopeFragment unauthorizedEnvelope;
+
+    public CustomAuthenticationEntryPoint(ResultEnvelopeWriter envelopeWriter) {
+        this.envelopeWriter = envelopeWriter;
+        this.unauthorizedEnvelope = envelopeWriter.preEncode(ResultCode.UNAUTHORIZED.getCode(), "访问被拒绝，请先登录");
+    }
 
     @Override
     public void commence(HttpServletRequest request,
@@ -41,13 +49,7 @@ public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 
-        // 构建统一响应格式
-        CommonResultTransferVO<Void> result = CommonResultTransferVO.failed(
-                ResultCode.UNAUTHORIZED.getCode(),
-                "访问被拒绝，请先登录"
-        );
-
-        // 写入响应
-        response.getWriter().write(objectMapper.writeValueAsString(result));
+        // 写入统一响应格式
+        envelopeWriter.write(unauthorizedEnvelope, response.getOutputStream());
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.mcallzbl.user.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcallzbl.user.enums.UserImportFormat;
+import com.mcallzbl.user.pojo.dto.UserImportRecord;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 用户导入文件读取器
+ * 逐行读取CSV或JSONL，不把整个文件加载到内存；单行解析失败只影响该行
+ * <p>
+ * CSV首行为表头，支持的列：username, email, password, password_hash, nickname, phone, language, timezone, email_verified
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+public class UserImportReader implements Closeable {
+    private final BufferedReader reader;
+    private final UserImportFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long lineNumber = 0;
+
+    public UserImportReader(InputStream input, UserImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 读取下一条记录，跳过空行
+     *
+     * @return 下一行的解析结果，文件结束时返回null
+     */
+    public Line next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == UserImportFormat.CSV && header == null) {
+                header = parseCsvLine(stripBom(text)).stream()
+                        .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                        .toList();
+                continue;
+            }
+            try {
+                UserImportRecord record = format == UserImportFormat.CSV
+                        ? toRecord(parseCsvLine(text))
+                        : objectMapper.readValue(text, UserImportRecord.class);
+                return new Line(lineNumber, record, null);
+            } catch (Exception e) {
+                return new Line(lineNumber, null, "无法解析：" + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private UserImportRecord toRecord(List<String> values) {
+        UserImportRecord record = new UserImportRecord();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header.get(i)) {
+                case "username" -> record.setUsername(value);
+                case "email" -> record.setEmail(value);
+                case "password" -> record.setPassword(value);
+                case "password_hash" -> record.setPasswordHash(value);
+                case "nickname" -> record.setNickname(value);
+                case "phone" -> record.setPhone(value);
+                case "language" -> record.setLanguage(value);
+                case "timezone" -> record.setTimezone(value);
+                case "email_verified" -> record.setEmailVerified(value != null
+                        && ("1".equals(value) || "true".equalsIgnoreCase(value)));
+                default -> {
+                    // 忽略未知列
+                }
+            }
+        }
+        return record;
+    }
+
+    /**
+     * 解析一行CSV，支持双引号包裹的字段及 "" 转义
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("引号未闭合");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String stripBom(String text) {
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+    /**
+     * 一行的解析结果，record与error有且只有一个不为null
+     */
+    public record Line(long lineNumber, UserImportRecord record, String error) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.mcallzbl.user.importer;
+
+import com.mcallzbl.user.config.UserImportConfig;
+import com.mcallzbl.user.pojo.dto.UserImportFailure;
+import com.mcallzbl.user.pojo.dto.UserImportReport;
+import com.mcallzbl.user.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 命令行用户导入
+ * 启动参数指定文件时在应用启动后执行导入，例如：
+ * <pre>
+ * java -jar app.jar --app.user-import.file=/data/users.csv --app.user-import.format=csv
+ * </pre>
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.user-import", name = "file")
+public class UserImportRunner implements ApplicationRunner {
+    private final UserImportService userImportService;
+    private final UserImportConfig config;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Path.of(config.getFile());
+        log.info("开始导入用户：file={}, format={}", path, config.getFormat());
+        UserImportReport report;
+        try (InputStream input = Files.newInputStream(path)) {
+            report = userImportService.importUsers(input, config.getFormat(), null);
+        }
+        for (UserImportFailure failure : report.getFailures()) {
+            log.warn("导入失败：第{}行, 用户名={}, 邮箱={}, 原因={}",
+                    failure.getLineNumber(), failure.getUsername(), failure.getEmail(), failure.getReason());
+        }
+        log.info("用户导入结束：成功{}条，失败{}条，耗时{}ms",
+                report.getProgress().getImported(), report.getProgress().getFailed(), report.getElapsedMillis());
+    }
+}
@@ -0,0 +1,38 @@
+package com.mcallzbl.user.mail;
+
+import lombok.Getter;
+
+/**
+ * 邮件优先级
+ * 每个优先级对应一个独立的Stream，消费者总是先处理高优先级队列
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Getter
+public enum MailPriority {
+
+    /**
+     * 高优先级：登录、找回密码等验证码邮件
+     */
+    HIGH("high"),
+
+    /**
+     * 普通优先级：账户通知
+     */
+    NORMAL("normal"),
+
+    /**
+     * 低优先级：批量公告
+     */
+    LOW("low");
+
+    /**
+     * Stream键后缀
+     */
+    private final String lane;
+
+    MailPriority(String lane) {
+        this.lane = lane;
+    }
+}
@@ -0,0 +1,333 @@
+package com.mcallzbl.user.mail;
+
+import com.mcallzbl.user.config.MailQueueConfig;
+import com.mcallzbl.user.service.impl.EmailServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 邮件队列消费者
+ * 以消费者组方式从Redis Stream拉取邮件并发送，任意节点都可以参与消费
+ * <ul>
+ *     <li>优先级：每轮先非阻塞地依次检查高、普通、低优先级队列，都为空时才阻塞等待</li>
+ *     <li>重试：发送失败按指数退避放入延迟队列，超过最大次数或验证码即将失效时进入死信队列</li>
+ *     <li>容错：其他节点崩溃遗留的未确认消息在空闲超时后被接管</li>
+ *     <li>停机：停止拉取新消息，等待在途消息发送完成</li>
+ * </ul>
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${app.mail.queue.enabled:false} and ${app.mail.queue.worker-enabled:true}")
+public class MailQueueWorker implements SmartLifecycle {
+    private static final MailPriority[] LANES = MailPriority.values();
+
+    private final RedisMailQueue mailQueue;
+    private final StringRedisTemplate redisTemplate;
+    private final MailQueueConfig config;
+    private final EmailServiceImpl emailService;
+    private final String consumerName;
+
+    private volatile boolean running = false;
+    private ExecutorService workers;
+    private ScheduledExecutorService maintenance;
+
+    public MailQueueWorker(RedisMailQueue mailQueue,
+                           StringRedisTemplate redisTemplate,
+                           MailQueueConfig config,
+                           EmailServiceImpl emailService) {
+        this.mailQueue = mailQueue;
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+        this.emailService = emailService;
+        this.consumerName = resolveConsumerName(config);
+    }
+
+    // ==================== 生命周期 ====================
+
+    @Override
+    public void start() {
+        for (MailPriority priority : LANES) {
+            createGroupIfAbsent(mailQueue.laneKey(priority));
+        }
+        running = true;
+
+        int threads = Math.max(1, config.getWorkerThreads());
+        workers = Executors.newFixedThreadPool(threads, namedThreadFactory("mail-worker-"));
+        for (int i = 0; i < threads; i++) {
+            workers.submit(this::consumeLoop);
+        }
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("mail-maintenance-"));
+        maintenance.scheduleWithFixedDelay(this::promoteRetries, 1, 1, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(this::claimStalePending,
+                config.getClaimIdleMillis(), config.getClaimIdleMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("邮件队列消费者已启动：consumer={}, threads={}", consumerName, threads);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        maintenance.shutdown();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(config.getDrainTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("邮件队列消费者未能在{}ms内处理完在途消息，未确认的消息将由其他节点接管",
+                        config.getDrainTimeoutMillis());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        log.info("邮件队列消费者已停止：consumer={}", consumerName);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 在Web服务器优雅停机之后再停止，保证停机期间入队的邮件仍能被处理
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    // ==================== 消费逻辑 ====================
+
+    private void consumeLoop() {
+        while (running) {
+            try {
+                List<MapRecord<String, Object, Object>> records = readNext();
+                // 已拉取的消息即使正在停机也要处理完，避免停机时丢下在途消息
+                for (MapRecord<String, Object, Object> record : records) {
+                    process(record);
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("拉取邮件队列失败，稍后重试", e);
+                sleepQuietly(config.getBlockMillis());
+            }
+        }
+    }
+
+    /**
+     * 按优先级拉取消息
+     * 先依次非阻塞读取各优先级队列，全部为空时对所有队列阻塞等待
+     */
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> readNext() {
+        Consumer consumer = Consumer.from(config.getGroup(), consumerName);
+        for (MailPriority priority : LANES) {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                    consumer,
+                    StreamReadOptions.empty().count(config.getBatchSize()),
+                    StreamOffset.create(mailQueue.laneKey(priority), ReadOffset.lastConsumed()));
+            if (records != null && !records.isEmpty()) {
+                return records;
+            }
+        }
+
+        StreamOffset<String>[] offsets = new StreamOffset[LANES.length];
+        for (int i = 0; i < LANES.length; i++) {
+            offsets[i] = StreamOffset.create(mailQueue.laneKey(LANES[i]), ReadOffset.lastConsumed());
+        }
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                consumer,
+                StreamReadOptions.empty().count(1).block(Duration.ofMillis(config.getBlockMillis())),
+                offsets);
+        return records != null ? records : List.of();
+    }
+
+    /**
+     * 发送单条消息，无论成功还是转入重试/死信都会确认，保证消息不会丢失也不会被重复消费
+     */
+    private void process(MapRecord<String, Object, Object> record) {
+        OutboundMail mail;
+        try {
+            mail = OutboundMail.fromFields(record.getValue());
+        } catch (Exception e) {
+            log.error("无法解析的邮件消息，直接丢弃：stream={}, id={}", record.getStream(), record.getId(), e);
+            acknowledge(record);
+            return;
+        }
+
+        try {
+            send(mail);
+            log.debug("队列邮件发送成功：收件人={}, 目的={}", mail.getTo(), mail.getPurpose());
+        } catch (Exception e) {
+            handleFailure(mail, e);
+        }
+        acknowledge(record);
+    }
+
+    /**
+     * 直接调用同步发送，异常由调用方处理重试；不经过可能被@Async代理的sendVerificationCode
+     */
+    private void send(OutboundMail mail) {
+        if (mail.isExpiredAt(System.currentTimeMillis())) {
+            throw new IllegalStateException("验证码已失效，不再发送");
+        }
+        Locale locale = StringUtils.hasText(mail.getLocale())
+                ? Locale.forLanguageTag(mail.getLocale())
+                : LocaleContextHolder.getLocale();
+        emailService.sendVerificationCodeNow(mail.getTo(), mail.getCode(), mail.getPurpose(), locale);
+    }
+
+    private void handleFailure(OutboundMail mail, Exception e) {
+        int attempt = mail.getAttempt() + 1;
+        mail.setAttempt(attempt);
+        if (attempt >= config.getMaxAttempts()) {
+            mailQueue.deadLetter(mail, e.getMessage());
+            return;
+        }
+        long backoff = backoffMillis(attempt);
+        if (mail.isExpiredAt(System.currentTimeMillis() + backoff)) {
+            // 下一次重试时验证码已经失效，发出去也无法使用
+            mailQueue.deadLetter(mail, "expired: " + e.getMessage());
+            return;
+        }
+        log.warn("邮件发送失败，{}ms后第{}次重试：收件人={}, 原因={}", backoff, attempt, mail.getTo(), e.getMessage());
+        mailQueue.scheduleRetry(mail, backoff);
+    }
+
+    /**
+     * 指数退避：initial * 2^(attempt-1)，不超过上限
+     */
+    private long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        long backoff = config.getInitialBackoffMillis() << shift;
+        return backoff <= 0 ? config.getMaxBackoffMillis() : Math.min(backoff, config.getMaxBackoffMillis());
+    }
+
+    private void acknowledge(MapRecord<String, Object, Object> record) {
+        mailQueue.acknowledge(record.getStream(), record.getId());
+    }
+
+    // ==================== 维护任务 ====================
+
+    private void promoteRetries() {
+        try {
+            int promoted = mailQueue.promoteDueRetries(config.getBatchSize());
+            if (promoted > 0) {
+                log.debug("{}封重试邮件已重新入队", promoted);
+            }
+        } catch (Exception e) {
+            log.warn("处理邮件重试队列失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 接管长时间未确认的消息（通常来自已崩溃的节点）
+     */
+    private void claimStalePending() {
+        Duration minIdle = Duration.ofMillis(config.getClaimIdleMillis());
+        for (MailPriority priority : LANES) {
+            String key = mailQueue.laneKey(priority);
+            try {
+                PendingMessages pending = redisTemplate.opsForStream()
+                        .pending(key, config.getGroup(), Range.unbounded(), config.getBatchSize());
+                List<RecordId> stale = new ArrayList<>();
+                for (PendingMessage message : pending) {
+                    if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0) {
+                        stale.add(message.getId());
+                    }
+                }
+                if (stale.isEmpty()) {
+                    continue;
+                }
+                List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+                        .claim(key, config.getGroup(), consumerName, minIdle, stale.toArray(new RecordId[0]));
+                log.info("接管{}条未确认的邮件消息：stream={}", claimed.size(), key);
+                for (MapRecord<String, Object, Object> record : claimed) {
+                    process(record);
+                }
+            } catch (Exception e) {
+                log.warn("接管未确认邮件消息失败：stream={}, 原因={}", key, e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private void createGroupIfAbsent(String key) {
+        try {
+            redisTemplate.execute((RedisCallback<String>) (RedisConnection connection) ->
+                    connection.streamCommands().xGroupCreate(
+                            key.getBytes(StandardCharsets.UTF_8), config.getGroup(), ReadOffset.from("0"), true));
+        } catch (Exception e) {
+            // 消费者组已存在时Redis返回BUSYGROUP错误
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private static String resolveConsumerName(MailQueueConfig config) {
+        if (StringUtils.hasText(config.getConsumerName())) {
+            return config.getConsumerName();
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
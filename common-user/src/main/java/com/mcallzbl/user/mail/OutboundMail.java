@@ -0,0 +1,116 @@
+package com.mcallzbl.user.mail;
+
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 出站邮件消息
+ * 队列中只保存渲染邮件所需的参数，由消费者在发送时按收件人语言渲染
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundMail {
+    private static final String FIELD_TO = "to";
+    private static final String FIELD_PURPOSE = "purpose";
+    private static final String FIELD_CODE = "code";
+    private static final String FIELD_LOCALE = "locale";
+    private static final String FIELD_PRIORITY = "priority";
+    private static final String FIELD_ATTEMPT = "attempt";
+    private static final String FIELD_DEADLINE = "deadline";
+
+    /**
+     * 收件人邮箱
+     */
+    private String to;
+
+    /**
+     * 验证目的
+     */
+    private VerificationEmailRequest.Purpose purpose;
+
+    /**
+     * 验证码
+     */
+    private String code;
+
+    /**
+     * 渲染邮件使用的语言（BCP 47格式，如 zh-CN）
+     */
+    private String locale;
+
+    /**
+     * 优先级
+     */
+    @Builder.Default
+    private MailPriority priority = MailPriority.NORMAL;
+
+    /**
+     * 已尝试发送的次数
+     */
+    private int attempt;
+
+    /**
+     * 最晚发送时间（毫秒时间戳），超过后验证码已经失效，不再发送；0表示不限制
+     */
+    private long deadline;
+
+    /**
+     * 是否已超过最晚发送时间
+     *
+     * @param now 当前时间（毫秒时间戳）
+     */
+    public boolean isExpiredAt(long now) {
+        return deadline > 0 && now >= deadline;
+    }
+
+    /**
+     * 转换为Stream消息字段
+     */
+    public Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_TO, to);
+        fields.put(FIELD_PURPOSE, purpose.getValue());
+        fields.put(FIELD_CODE, code);
+        fields.put(FIELD_LOCALE, locale);
+        fields.put(FIELD_PRIORITY, priority.name());
+        fields.put(FIELD_ATTEMPT, String.valueOf(attempt));
+        fields.put(FIELD_DEADLINE, String.valueOf(deadline));
+        return fields;
+    }
+
+    /**
+     * 转换为死信字段，不包含验证码
+     */
+    public Map<String, String> toDeadLetterFields() {
+        Map<String, String> fields = toFields();
+        fields.remove(FIELD_CODE);
+        return fields;
+    }
+
+    /**
+     * 从Stream消息字段还原
+     */
+    public static OutboundMail fromFields(Map<?, ?> fields) {
+        String deadline = (String) fields.get(FIELD_DEADLINE);
+        return OutboundMail.builder()
+                .to((String) fields.get(FIELD_TO))
+                .purpose(VerificationEmailRequest.Purpose.fromValue((String) fields.get(FIELD_PURPOSE)))
+                .code((String) fields.get(FIELD_CODE))
+                .locale((String) fields.get(FIELD_LOCALE))
+                .priority(MailPriority.valueOf((String) fields.get(FIELD_PRIORITY)))
+                .attempt(Integer.parseInt((String) fields.get(FIELD_ATTEMPT)))
+                .deadline(deadline != null ? Long.parseLong(deadline) : 0)
+                .build();
+    }
+}
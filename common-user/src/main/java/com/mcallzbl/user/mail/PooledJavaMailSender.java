@@ -0,0 +1,290 @@
+package com.mcallzbl.user.mail;
+
+import com.mcallzbl.user.config.MailPoolConfig;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带连接池的邮件发送器
+ * 复用已认证的SMTP连接，避免每封邮件都进行TCP建连、TLS握手和登录认证
+ * <p>
+ * 连接在空闲一段时间后复用前会先通过NOOP校验；发送失败时丢弃连接，
+ * 只有服务端确定没有收到邮件内容时才在新连接上重试一次，避免重复投递
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    /**
+     * SMTP 421：服务不可用，服务端即将关闭连接
+     */
+    private static final int SERVICE_NOT_AVAILABLE = 421;
+
+    private final MailPoolConfig poolConfig;
+
+    /**
+     * 空闲连接，后进先出，优先复用最近使用过的连接
+     */
+    private final BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+
+    /**
+     * 限制同时存在的连接总数（空闲 + 使用中）
+     */
+    private final Semaphore permits;
+
+    private volatile boolean closed = false;
+
+    public PooledJavaMailSender(MailPoolConfig poolConfig) {
+        this.poolConfig = poolConfig;
+        this.permits = new Semaphore(Math.max(1, poolConfig.getMaxConnections()), true);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport pooled = borrow();
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = (originalMessages != null ? originalMessages[i] : mimeMessage);
+                try {
+                    pooled = sendWithRetry(pooled, mimeMessage);
+                } catch (MessagingException e) {
+                    if (!(e instanceof SendFailedException)) {
+                        pooled.markBroken();
+                    }
+                    failedMessages.put(original, e);
+                } catch (RuntimeException e) {
+                    // 例如连接被服务端断开后的IllegalStateException("Not connected")，连接不能再放回池中
+                    pooled.markBroken();
+                    failedMessages.put(original, e);
+                }
+            }
+        } finally {
+            release(pooled);
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * 在给定连接上发送邮件
+     * 只有在确定服务端没有接收邮件时才换新连接重试：建连失败，或服务端明确以421（服务不可用）拒绝了本次发送。
+     * 没有收到服务端应答的失败（例如DATA之后连接中断）无法确定服务端是否已经接收，重试可能导致重复投递，直接作为最终失败
+     *
+     * @return 发送完成后持有的连接
+     */
+    private PooledTransport sendWithRetry(PooledTransport pooled, MimeMessage mimeMessage) throws MessagingException {
+        if (pooled.broken) {
+            pooled.reconnect(connectWithRetry());
+        }
+        try {
+            sendMessage(pooled, mimeMessage);
+            return pooled;
+        } catch (SendFailedException e) {
+            if (returnCode(e) != SERVICE_NOT_AVAILABLE) {
+                throw e;
+            }
+            log.warn("SMTP连接已被服务端关闭，重建连接后重试: {}", e.getMessage());
+            pooled.markBroken();
+            pooled.reconnect(connectWithRetry());
+            sendMessage(pooled, mimeMessage);
+            return pooled;
+        }
+    }
+
+    /**
+     * 服务端对MAIL FROM或DATA的应答码，不是SMTP应答导致的失败时返回-1
+     */
+    private static int returnCode(SendFailedException e) {
+        if (e instanceof SMTPSenderFailedException senderFailed) {
+            return senderFailed.getReturnCode();
+        }
+        if (e instanceof SMTPSendFailedException sendFailed) {
+            return sendFailed.getReturnCode();
+        }
+        return -1;
+    }
+
+    private void sendMessage(PooledTransport pooled, MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // 保留调用方指定的Message-ID，saveChanges会重新生成
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = mimeMessage.getAllRecipients();
+        pooled.transport.sendMessage(mimeMessage, (addresses != null ? addresses : new Address[0]));
+        pooled.sentCount++;
+    }
+
+    // ==================== 连接池管理 ====================
+
+    /**
+     * 获取一个可用连接
+     * 优先复用空闲连接，必要时校验或重建；连接数达到上限时等待
+     */
+    private PooledTransport borrow() throws MailException {
+        if (closed) {
+            throw new MailSendException("邮件连接池已关闭");
+        }
+        try {
+            if (!permits.tryAcquire(poolConfig.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("获取SMTP连接超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("获取SMTP连接被中断", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idleTransports.pollFirst()) != null) {
+                if (isReusable(pooled)) {
+                    return pooled;
+                }
+                pooled.close();
+            }
+            return new PooledTransport(connect());
+        } catch (MessagingException e) {
+            permits.release();
+            if (e instanceof AuthenticationFailedException) {
+                throw new MailAuthenticationException(e);
+            }
+            throw new MailSendException("建立SMTP连接失败", e);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接，超出复用次数的连接直接关闭
+     */
+    private void release(PooledTransport pooled) {
+        try {
+            if (closed || pooled.broken || pooled.sentCount >= poolConfig.getMaxMessagesPerConnection()) {
+                pooled.close();
+            } else {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idleTransports.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 判断空闲连接能否复用
+     * 空闲时间较长的连接通过isConnected()校验，SMTP实现会发送NOOP命令
+     */
+    private boolean isReusable(PooledTransport pooled) {
+        long idleMillis = System.currentTimeMillis() - pooled.lastUsedAt;
+        if (idleMillis > poolConfig.getMaxIdleMillis()) {
+            return false;
+        }
+        if (idleMillis > poolConfig.getValidateAfterIdleMillis()) {
+            return pooled.transport.isConnected();
+        }
+        return true;
+    }
+
+    /**
+     * 建立新连接，失败时再尝试一次；建连阶段还没有发送任何邮件内容，重试是安全的
+     */
+    private Transport connectWithRetry() throws MessagingException {
+        try {
+            return connect();
+        } catch (AuthenticationFailedException e) {
+            throw e;
+        } catch (MessagingException e) {
+            log.warn("建立SMTP连接失败，重试一次: {}", e.getMessage());
+            return connect();
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = connectTransport();
+        log.debug("建立新的SMTP连接: {}:{}", getHost(), getPort());
+        return transport;
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idleTransports.pollFirst()) != null) {
+            pooled.close();
+        }
+        log.info("邮件连接池已关闭");
+    }
+
+    /**
+     * 池化的SMTP连接
+     */
+    private static final class PooledTransport {
+        private Transport transport;
+        private long lastUsedAt;
+        private int sentCount;
+        private boolean broken;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+            this.lastUsedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * 替换为新建立的连接
+         */
+        private void reconnect(Transport newTransport) {
+            this.transport = newTransport;
+            this.lastUsedAt = System.currentTimeMillis();
+            this.sentCount = 0;
+            this.broken = false;
+        }
+
+        /**
+         * 标记连接已损坏并关闭，归还时不再放回连接池
+         */
+        private void markBroken() {
+            this.broken = true;
+            close();
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("关闭SMTP连接失败: {}", e.getMessage());
+            }
+        }
+    }
+}
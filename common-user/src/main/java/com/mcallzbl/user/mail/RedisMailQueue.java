@@ -0,0 +1,190 @@
+package com.mcallzbl.user.mail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcallzbl.user.config.MailQueueConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 基于Redis Stream的出站邮件队列
+ * <ul>
+ *     <li>{prefix}:{lane}：各优先级的待发送队列</li>
+ *     <li>{prefix}:retry：延迟重试队列（ZSET，score为可重试时间）</li>
+ *     <li>{prefix}:dead：超过最大重试次数的死信队列</li>
+ * </ul>
+ * 各Stream写入时按近似长度裁剪，消息确认后立即删除；死信不保存验证码，并整体设置过期时间
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.mail.queue", name = "enabled", havingValue = "true")
+public class RedisMailQueue {
+    private static final String RETRY_SUFFIX = ":retry";
+    private static final String DEAD_SUFFIX = ":dead";
+    private static final String FIELD_NONCE = "nonce";
+    private static final String FIELD_ERROR = "error";
+
+    /**
+     * 写入Stream：XADD MAXLEN ~，可选EXPIRE
+     */
+    private static final RedisScript<String> ADD_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/mail_queue_add.lua"), String.class);
+
+    /**
+     * 重试消息回队：ZREM与XADD原子完成
+     */
+    private static final RedisScript<String> PROMOTE_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/mail_queue_promote.lua"), String.class);
+
+    /**
+     * 确认消息：XACK后XDEL
+     */
+    private static final RedisScript<Long> ACK_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/mail_queue_ack.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MailQueueConfig mailQueueConfig;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 投递邮件到对应优先级的队列
+     *
+     * @param mail 出站邮件
+     * @return Stream消息ID
+     */
+    public RecordId enqueue(OutboundMail mail) {
+        String id = redisTemplate.execute(ADD_SCRIPT, List.of(laneKey(mail.getPriority())),
+                streamArgs(mail.toFields(), String.valueOf(mailQueueConfig.getLaneMaxLength()), "0"));
+        RecordId recordId = RecordId.of(id);
+        log.debug("邮件已入队：收件人={}, 优先级={}, 消息ID={}", mail.getTo(), mail.getPriority(), recordId);
+        return recordId;
+    }
+
+    /**
+     * 确认并删除已处理的消息
+     *
+     * @param stream   Stream键
+     * @param recordId 消息ID
+     */
+    public void acknowledge(String stream, RecordId recordId) {
+        redisTemplate.execute(ACK_SCRIPT, List.of(stream), mailQueueConfig.getGroup(), recordId.getValue());
+    }
+
+    /**
+     * 延迟重试
+     *
+     * @param mail        出站邮件（attempt已递增）
+     * @param delayMillis 延迟时间（毫秒）
+     */
+    public void scheduleRetry(OutboundMail mail, long delayMillis) {
+        Map<String, String> fields = mail.toFields();
+        // 保证相同内容的多次重试在ZSET中互不覆盖
+        fields.put(FIELD_NONCE, UUID.randomUUID().toString());
+        redisTemplate.opsForZSet().add(retryKey(), toJson(fields), System.currentTimeMillis() + delayMillis);
+    }
+
+    /**
+     * 将到期的重试消息移回待发送队列
+     * ZREM成功的节点才负责重新投递，ZREM与XADD在同一个脚本中完成，多个节点同时执行也不会重复或丢失
+     *
+     * @param limit 单次最多移动的数量
+     * @return 移动的数量
+     */
+    public int promoteDueRetries(int limit) {
+        Set<String> due = redisTemplate.opsForZSet()
+                .rangeByScore(retryKey(), 0, System.currentTimeMillis(), 0, limit);
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+        int promoted = 0;
+        for (String member : due) {
+            Map<String, String> fields = fromJson(member);
+            fields.remove(FIELD_NONCE);
+            OutboundMail mail = OutboundMail.fromFields(fields);
+            String id = redisTemplate.execute(PROMOTE_SCRIPT, List.of(retryKey(), laneKey(mail.getPriority())),
+                    streamArgs(mail.toFields(), member, String.valueOf(mailQueueConfig.getLaneMaxLength())));
+            if (id != null) {
+                promoted++;
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * 投递到死信队列
+     *
+     * @param mail  出站邮件
+     * @param error 最后一次失败原因
+     */
+    public void deadLetter(OutboundMail mail, String error) {
+        Map<String, String> fields = mail.toDeadLetterFields();
+        fields.put(FIELD_ERROR, error != null ? error : "unknown");
+        long ttlSeconds = Duration.ofHours(mailQueueConfig.getDeadTtlHours()).toSeconds();
+        redisTemplate.execute(ADD_SCRIPT, List.of(deadKey()),
+                streamArgs(fields, String.valueOf(mailQueueConfig.getDeadMaxLength()), String.valueOf(ttlSeconds)));
+        log.error("邮件未能发送，已进入死信队列：收件人={}, 目的={}, 原因={}",
+                mail.getTo(), mail.getPurpose(), error);
+    }
+
+    public String laneKey(MailPriority priority) {
+        return mailQueueConfig.getKeyPrefix() + ":" + priority.getLane();
+    }
+
+    public String retryKey() {
+        return mailQueueConfig.getKeyPrefix() + RETRY_SUFFIX;
+    }
+
+    public String deadKey() {
+        return mailQueueConfig.getKeyPrefix() + DEAD_SUFFIX;
+    }
+
+    /**
+     * 组装脚本参数：先是固定参数，之后是字段名与字段值交替
+     */
+    private static Object[] streamArgs(Map<String, String> fields, String... leading) {
+        List<String> args = new ArrayList<>(leading.length + fields.size() * 2);
+        args.addAll(List.of(leading));
+        fields.forEach((name, value) -> {
+            if (value != null) {
+                args.add(name);
+                args.add(value);
+            }
+        });
+        return args.toArray();
+    }
+
+    private String toJson(Map<String, String> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化邮件消息失败", e);
+        }
+    }
+
+    private Map<String, String> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("反序列化邮件消息失败", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.mcallzbl.user.mail;
+
+import com.mcallzbl.common.util.MessageCatalog;
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+import com.mcallzbl.user.utils.EmailI18nUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 验证码邮件渲染器
+ * 同一语言、同一目的的验证码邮件只有验证码不同，因此每个语言只查询一次国际化消息、
+ * 每个目的只执行一次Thymeleaf渲染，渲染时用占位符代替验证码并在占位符处切分，
+ * 发送时只需把验证码拼接到切分点
+ * <p>
+ * 邮件消息源重新加载时自动清空缓存；修改模板后调用 {@link #invalidate()} 立即生效
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+public class VerificationEmailRenderer {
+    private static final String CODE_PLACEHOLDER = "__VERIFICATION_CODE__";
+    private static final String TEMPLATE_NAME = "email-template";
+
+    private final TemplateEngine emailTemplateEngine;
+    private final EmailI18nUtils emailI18nUtils;
+    private final Map<Locale, LocalizedTemplates> cache = new ConcurrentHashMap<>();
+
+    public VerificationEmailRenderer(@Qualifier("emailTemplateEngine") TemplateEngine emailTemplateEngine,
+                                     EmailI18nUtils emailI18nUtils,
+                                     @Qualifier("emailMessageSource") MessageSource emailMessageSource) {
+        this.emailTemplateEngine = emailTemplateEngine;
+        this.emailI18nUtils = emailI18nUtils;
+        if (emailMessageSource instanceof MessageCatalog catalog) {
+            catalog.addReloadListener(this::invalidate);
+        }
+    }
+
+    /**
+     * 获取邮件标题
+     */
+    public String subject(VerificationEmailRequest.Purpose purpose, Locale locale) {
+        return templates(locale).subjects().get(purpose);
+    }
+
+    /**
+     * 获取邮件正文
+     */
+    public String body(VerificationEmailRequest.Purpose purpose, String code, Locale locale) {
+        SplitTemplate template = templates(locale).bodies().get(purpose);
+        String escapedCode = HtmlUtils.htmlEscape(code);
+        return new StringBuilder(template.head().length() + escapedCode.length() + template.tail().length())
+                .append(template.head())
+                .append(escapedCode)
+                .append(template.tail())
+                .toString();
+    }
+
+    /**
+     * 清空已渲染的邮件和模板缓存，下次发送时重新渲染
+     */
+    public void invalidate() {
+        emailTemplateEngine.clearTemplateCache();
+        cache.clear();
+        log.info("验证码邮件渲染缓存已清空");
+    }
+
+    private LocalizedTemplates templates(Locale locale) {
+        LocalizedTemplates templates = cache.get(locale);
+        if (templates == null) {
+            // 并发首次访问时可能重复渲染，结果相同，不需要加锁
+            templates = render(locale);
+            cache.put(locale, templates);
+        }
+        return templates;
+    }
+
+    private LocalizedTemplates render(Locale locale) {
+        Map<VerificationEmailRequest.Purpose, String> subjects = new EnumMap<>(VerificationEmailRequest.Purpose.class);
+        Map<VerificationEmailRequest.Purpose, SplitTemplate> bodies = new EnumMap<>(VerificationEmailRequest.Purpose.class);
+
+        Context context = new Context(locale);
+        context.setVariable("greeting", emailI18nUtils.getMessage("email.greeting", locale));
+        context.setVariable("code", CODE_PLACEHOLDER);
+        context.setVariable("companyName", emailI18nUtils.getMessage("email.company.name", locale));
+        context.setVariable("companyTagline", emailI18nUtils.getMessage("email.company.tagline", locale));
+        context.setVariable("validity", emailI18nUtils.getMessage("email.validity", locale));
+        context.setVariable("teamName", emailI18nUtils.getMessage("email.team.name", locale));
+        context.setVariable("emailTitle", emailI18nUtils.getMessage("email.title", locale));
+        context.setVariable("codeLabel", emailI18nUtils.getMessage("email.code.label", locale));
+        context.setVariable("securityTitle", emailI18nUtils.getMessage("email.security.title", locale));
+        context.setVariable("securityContent", emailI18nUtils.getMessage("email.security.content", locale));
+        context.setVariable("signatureThanks", emailI18nUtils.getMessage("email.signature.thanks", locale));
+        context.setVariable("footerSlogan", emailI18nUtils.getMessage("email.footer.slogan", locale));
+        String descriptionTemplate = emailI18nUtils.getMessage("email.description", locale);
+
+        for (VerificationEmailRequest.Purpose purpose : VerificationEmailRequest.Purpose.values()) {
+            String action = emailI18nUtils.getMessage(actionKey(purpose), locale);
+            context.setVariable("action", action);
+            context.setVariable("description", String.format(descriptionTemplate, action));
+
+            subjects.put(purpose, emailI18nUtils.getMessage(subjectKey(purpose), locale));
+            bodies.put(purpose, split(emailTemplateEngine.process(TEMPLATE_NAME, context)));
+        }
+        log.debug("验证码邮件已渲染：locale={}", locale);
+        return new LocalizedTemplates(subjects, bodies);
+    }
+
+    private static SplitTemplate split(String html) {
+        int index = html.indexOf(CODE_PLACEHOLDER);
+        if (index < 0 || html.indexOf(CODE_PLACEHOLDER, index + 1) >= 0) {
+            throw new IllegalStateException("邮件模板 " + TEMPLATE_NAME + " 必须且只能包含一处验证码");
+        }
+        return new SplitTemplate(html.substring(0, index), html.substring(index + CODE_PLACEHOLDER.length()));
+    }
+
+    private static String subjectKey(VerificationEmailRequest.Purpose purpose) {
+        return switch (purpose) {
+            case RESET_PASSWORD -> "email.subject.reset.password";
+            case CHANGE_EMAIL -> "email.subject.change.email";
+            case LOGIN -> "email.subject.login";
+        };
+    }
+
+    private static String actionKey(VerificationEmailRequest.Purpose purpose) {
+        return switch (purpose) {
+            case RESET_PASSWORD -> "email.action.reset.password";
+            case CHANGE_EMAIL -> "email.action.change.email";
+            case LOGIN -> "email.action.login";
+        };
+    }
+
+    /**
+     * 在验证码处切分的邮件正文
+     */
+    private record SplitTemplate(String head, String tail) {
+    }
+
+    /**
+     * 某个语言下所有目的的邮件标题和正文
+     */
+    private record LocalizedTemplates(Map<VerificationEmailRequest.Purpose, String> subjects,
+                                      Map<VerificationEmailRequest.Purpose, SplitTemplate> bodies) {
+    }
+}
@@ -4,6 +4,11 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.mcallzbl.user.pojo.entity.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * @author mcallzbl
@@ -33,4 +38,69 @@ public interface UserMapper extends BaseMapper<User> {
     default User selectByUserId(long userId) {
         return selectById(userId);
     }
+
+    /**
+     * 批量查询已存在的用户名
+     */
+    default List<String> selectExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return List.of();
+        }
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(User::getUsername).in(User::getUsername, usernames);
+        return selectList(queryWrapper).stream().map(User::getUsername).toList();
+    }
+
+    /**
+     * 批量查询已存在的邮箱
+     */
+    default List<String> selectExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(User::getEmail).in(User::getEmail, emails);
+        return selectList(queryWrapper).stream().map(User::getEmail).toList();
+    }
+
+    /**
+     * 查询等于基础用户名或以 基础用户名_ 开头的所有用户名，用于一次查询找出可用的后缀
+     *
+     * @param baseUsername  基础用户名
+     * @param suffixPattern LIKE模式，形如 base\_%（基础用户名中的通配符需已转义）
+     */
+    @Select("SELECT username FROM user WHERE username = #{baseUsername} OR username LIKE #{suffixPattern}")
+    List<String> selectUsernamesWithPrefix(@Param("baseUsername") String baseUsername,
+                                           @Param("suffixPattern") String suffixPattern);
+
+    /**
+     * 查询正常用户使用的所有语言
+     */
+    @Select("SELECT DISTINCT COALESCE(language, 'zh-CN') FROM user WHERE is_deleted = 0 AND status = 1")
+    List<String> selectActiveLanguages();
+
+    /**
+     * 按ID顺序分页读取指定语言的正常用户（键集分页）
+     * 只查询发送通知需要的列，language直接等值比较以使用idx_language索引
+     *
+     * @param language 语言
+     * @param afterId  只返回ID大于该值的用户，用于翻页和断点续发
+     * @param limit    每页数量
+     */
+    @Select("SELECT id, email, language FROM user " +
+            "WHERE language = #{language} AND id > #{afterId} " +
+            "AND is_deleted = 0 AND status = 1 AND email IS NOT NULL ORDER BY id LIMIT #{limit}")
+    List<User> selectActiveUsersByLanguage(@Param("language") String language, @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+
+    /**
+     * 按ID顺序分页读取未设置语言的正常用户，这些用户按默认语言接收通知
+     *
+     * @param afterId 只返回ID大于该值的用户，用于翻页和断点续发
+     * @param limit   每页数量
+     */
+    @Select("SELECT id, email, language FROM user " +
+            "WHERE language IS NULL AND id > #{afterId} " +
+            "AND is_deleted = 0 AND status = 1 AND email IS NOT NULL ORDER BY id LIMIT #{limit}")
+    List<User> selectActiveUsersWithoutLanguage(@Param("afterId") long afterId, @Param("limit") int limit);
 }
@@ -0,0 +1,47 @@
+package com.mcallzbl.user.pojo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 批量通知任务进度
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkNotificationProgress {
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 任务状态：RUNNING、COMPLETED、FAILED
+     */
+    private String status;
+
+    /**
+     * 已发送成功的邮件数
+     */
+    private long sent;
+
+    /**
+     * 发送失败的邮件数
+     */
+    private long failed;
+
+    /**
+     * 各语言已处理到的最大用户ID
+     */
+    private Map<String, Long> checkpoints;
+}
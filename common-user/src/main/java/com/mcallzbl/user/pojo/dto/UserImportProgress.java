@@ -0,0 +1,45 @@
+package com.mcallzbl.user.pojo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 导入进度，每处理完一批回调一次，计数均为累计值
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportProgress {
+
+    /**
+     * 已完成的批次数
+     */
+    private int chunks;
+
+    /**
+     * 已处理的记录数
+     */
+    private long processed;
+
+    /**
+     * 导入成功的记录数
+     */
+    private long imported;
+
+    /**
+     * 导入失败的记录数
+     */
+    private long failed;
+
+    /**
+     * 因用户名冲突被重命名的记录数
+     */
+    private long renamed;
+}
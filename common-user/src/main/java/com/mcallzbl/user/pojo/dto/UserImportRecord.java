@@ -0,0 +1,71 @@
+package com.mcallzbl.user.pojo.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 待导入的用户记录
+ * password与passwordHash二选一，提供passwordHash时按已加密的值直接写入
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRecord {
+
+    /**
+     * 用户名，为空时根据邮箱生成
+     */
+    private String username;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 明文密码
+     */
+    private String password;
+
+    /**
+     * 已加密的密码（需与当前PasswordEncoder兼容）
+     */
+    @JsonAlias("password_hash")
+    private String passwordHash;
+
+    /**
+     * 昵称
+     */
+    private String nickname;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 语言偏好
+     */
+    private String language;
+
+    /**
+     * 时区
+     */
+    private String timezone;
+
+    /**
+     * 邮箱是否已验证
+     */
+    @JsonAlias("email_verified")
+    private Boolean emailVerified;
+}
@@ -0,0 +1,37 @@
+package com.mcallzbl.user.pojo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 导入结果
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportReport {
+
+    /**
+     * 最终进度
+     */
+    private UserImportProgress progress;
+
+    /**
+     * 失败明细，最多保留 app.user-import.max-reported-failures 条
+     */
+    private List<UserImportFailure> failures;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+}
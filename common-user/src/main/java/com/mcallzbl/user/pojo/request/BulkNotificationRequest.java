@@ -0,0 +1,43 @@
+package com.mcallzbl.user.pojo.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量通知邮件请求
+ * 标题和正文使用邮件国际化资源中的消息键，按收件人语言分别渲染
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量通知邮件请求")
+public class BulkNotificationRequest {
+
+    @Schema(description = "任务ID，传入已中断任务的ID时从断点继续发送，为空时创建新任务")
+    private String jobId;
+
+    @Schema(description = "邮件标题的消息键", example = "email.notice.security.subject")
+    @NotBlank(message = "邮件标题不能为空")
+    private String subjectKey;
+
+    @Schema(description = "邮件正文的消息键", example = "email.notice.security.content")
+    @NotBlank(message = "邮件正文不能为空")
+    private String contentKey;
+
+    @Schema(description = "消息参数")
+    private List<String> args;
+
+    @Schema(description = "只发送给这些语言的用户，为空时发送给所有语言的用户", example = "[\"zh-CN\", \"en\"]")
+    private List<String> languages;
+}
@@ -0,0 +1,30 @@
+package com.mcallzbl.user.security;
+
+import com.mcallzbl.common.config.LanguagePreferenceProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已登录用户的语言偏好
+ * JWT认证通过后用户实体已保存在认证主体中，直接读取其语言设置，不需要额外查询
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Component
+public class UserLanguagePreferenceProvider implements LanguagePreferenceProvider {
+
+    @Override
+    @Nullable
+    public String getPreferredLanguage(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails
+                && userDetails.getUser() != null) {
+            return userDetails.getUser().getLanguage();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mcallzbl.user.service;
+
+import com.mcallzbl.user.pojo.dto.BulkNotificationProgress;
+import com.mcallzbl.user.pojo.request.BulkNotificationRequest;
+
+/**
+ * 批量通知邮件服务
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public interface BulkNotificationService {
+
+    /**
+     * 提交批量通知任务，任务在后台线程中执行
+     *
+     * @param request 通知请求，jobId不为空时从该任务的断点继续
+     * @return 任务ID
+     */
+    String submit(BulkNotificationRequest request);
+
+    /**
+     * 查询任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度，任务不存在或已过期时返回null
+     */
+    BulkNotificationProgress getProgress(String jobId);
+}
@@ -0,0 +1,29 @@
+package com.mcallzbl.user.service;
+
+import com.mcallzbl.user.enums.UserImportFormat;
+import com.mcallzbl.user.pojo.dto.UserImportProgress;
+import com.mcallzbl.user.pojo.dto.UserImportReport;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * 用户批量导入服务
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+public interface UserImportService {
+
+    /**
+     * 流式导入用户
+     * 按批处理，每批独立提交；单条或单批失败只记录到报告中，不中断整个导入
+     *
+     * @param input            CSV或JSONL输入流，由调用方负责关闭
+     * @param format           文件格式
+     * @param progressListener 每批处理完成后的进度回调，可为null
+     * @return 导入结果
+     */
+    UserImportReport importUsers(InputStream input, UserImportFormat format, Consumer<UserImportProgress> progressListener);
+}
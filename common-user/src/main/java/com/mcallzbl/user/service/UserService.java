@@ -76,6 +76,14 @@ public interface UserService {
      */
     User createUserByEmail(String email);
 
+    /**
+     * 邮箱对应的用户不存在时创建用户，并发调用时只会插入一次
+     *
+     * @param email 邮箱
+     * @return 已存在或新创建的用户
+     */
+    User createUserByEmailIfAbsent(String email);
+
     /**
      * 插入新用户到数据库
      *
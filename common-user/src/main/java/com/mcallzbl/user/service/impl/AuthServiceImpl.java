@@ -12,11 +12,15 @@ import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
 import com.mcallzbl.user.service.AuthService;
 import com.mcallzbl.user.service.EmailVerificationService;
 import com.mcallzbl.user.service.UserService;
+import com.mcallzbl.user.utils.TakenIdentifierCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 
@@ -30,10 +34,14 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
+    private static final String UNIQUE_KEY_USERNAME = "uk_username";
+    private static final String UNIQUE_KEY_EMAIL = "uk_email";
+
     private final EmailVerificationService emailVerificationService;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final RegistrationConfig registrationConfig;
+    private final TakenIdentifierCache takenIdentifierCache;
 
     @Override
     @Transactional
@@ -102,8 +110,8 @@ public class AuthServiceImpl implements AuthService {
         // 2. 验证基础参数
         validateRegistrationRequest(usernameRegistrationRequest);
 
-        // 3. 检查唯一性
-        validateUniqueness(usernameRegistrationRequest);
+        // 3. 提前拒绝最近已被占用的用户名/邮箱，唯一性最终由数据库唯一约束保证
+        rejectRecentlyTaken(usernameRegistrationRequest);
 
         // 4. TODO: 检查注册频率限制（IP和邮箱）
         // checkRateLimit(usernameRegistrationRequest, clientIp);
@@ -160,7 +168,7 @@ public class AuthServiceImpl implements AuthService {
         // 使用直接查询方法，因为需要手动处理用户不存在的情况
         User user = userService.findUserByEmail(emailLoginRequest.getEmail());
         if (user == null) {
-            throw BusinessException.of("邮箱或密码不正确");
+            throw BusinessException.expected("邮箱或密码不正确");
         }
 
         // 验证密码（包含用户状态验证）
@@ -177,11 +185,11 @@ public class AuthServiceImpl implements AuthService {
      */
     private void validateUserPassword(User user, String password) {
         if (user == null || !StringUtils.hasText(user.getPasswordHash())) {
-            throw BusinessException.of("用户不存在或密码未设置");
+            throw BusinessException.expected("用户不存在或密码未设置");
         }
 
         if (!passwordEncoder.matches(password, user.getPasswordHash())) {
-            throw BusinessException.of("密码不正确");
+            throw BusinessException.expected("密码不正确");
         }
 
         // 用户状态验证已经在UserService.getUserXX方法中处理了
@@ -198,16 +206,19 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(ResultCode.EMAIL_VERIFICATION_CODE_ERROR, "邮箱验证码错误或已过期");
         }
 
-        User user = userService.getUserByEmail(loginDTO.getEmail());
+        User user = userService.findUserByEmail(loginDTO.getEmail());
 
         if (user == null) {
             log.info("用户不存在，将通过邮箱验证码自动注册：email={}", loginDTO.getEmail());
 
-            user = userService.createUserByEmail(loginDTO.getEmail());
+            // 重复提交或并发请求只会插入一次
+            user = userService.createUserByEmailIfAbsent(loginDTO.getEmail());
             if (user == null) {
                 throw new BusinessException(ResultCode.FAILED, "用户自动注册失败，请稍后再试");
             }
             log.info("用户自动注册成功：userId={}, email={}", user.getId(), user.getEmail());
+        } else if (user.getDeleteStatus().isDeleted()) {
+            throw BusinessException.of("用户已被删除");
         }
         if (user.isInActive()) {
             throw new BusinessException("用户已被禁用");
@@ -226,30 +237,22 @@ public class AuthServiceImpl implements AuthService {
     private void validateRegistrationRequest(UsernameRegistrationRequest request) {
         // 验证密码一致性
         if (!request.isPasswordMatching()) {
-            throw BusinessException.of("两次输入的密码不一致");
+            throw BusinessException.expected("两次输入的密码不一致");
         }
     }
 
     /**
-     * 检查用户名和邮箱的唯一性
+     * 已占用缓存命中时直接拒绝，不访问数据库
      *
      * @param request 注册请求
      */
-    private void validateUniqueness(UsernameRegistrationRequest request) {
-        // 检查用户名唯一性
-        if (registrationConfig.isCheckUsernameUnique()) {
-            User existingUserByUsername = userService.findUserByUsername(request.getUsername());
-            if (existingUserByUsername != null) {
-                throw BusinessException.of("用户名已存在");
-            }
+    private void rejectRecentlyTaken(UsernameRegistrationRequest request) {
+        if (registrationConfig.isCheckUsernameUnique() && takenIdentifierCache.isUsernameTaken(request.getUsername())) {
+            throw BusinessException.userAlreadyExists("用户名已存在");
         }
-
-        // 检查邮箱唯一性
-        if (registrationConfig.isCheckEmailUnique() && StringUtils.hasText(request.getEmail())) {
-            User existingUserByEmail = userService.findUserByEmail(request.getEmail());
-            if (existingUserByEmail != null) {
-                throw BusinessException.of("邮箱已被注册");
-            }
+        if (registrationConfig.isCheckEmailUnique() && StringUtils.hasText(request.getEmail())
+                && takenIdentifierCache.isEmailTaken(request.getEmail())) {
+            throw BusinessException.userAlreadyExists("邮箱已被注册");
         }
     }
 
@@ -269,13 +272,67 @@ public class AuthServiceImpl implements AuthService {
                 .emailVerified(false)  // 用户名注册默认邮箱未验证
                 .build();
 
-        // 插入用户到数据库
-        boolean success = userService.insertUser(newUser);
+        // 插入用户到数据库，用户名/邮箱重复由唯一约束拒绝
+        boolean success;
+        try {
+            success = userService.insertUser(newUser);
+        } catch (DuplicateKeyException e) {
+            throw translateDuplicateKey(e, newUser);
+        }
         if (!success) {
             throw BusinessException.of("用户创建失败");
         }
 
+        markTakenAfterCommit(newUser);
         return newUser;
     }
 
+    /**
+     * 注册事务提交后再写入已占用缓存，事务回滚时用户名和邮箱仍可使用，不能留下错误的缓存
+     *
+     * @param user 新注册的用户
+     */
+    private void markTakenAfterCommit(User user) {
+        Runnable mark = () -> {
+            takenIdentifierCache.markUsernameTaken(user.getUsername());
+            if (StringUtils.hasText(user.getEmail())) {
+                takenIdentifierCache.markEmailTaken(user.getEmail());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark.run();
+            }
+        });
+    }
+
+    /**
+     * 根据冲突的唯一键判断是用户名还是邮箱重复
+     *
+     * @param e    唯一约束冲突异常
+     * @param user 待插入的用户
+     * @return 用户已存在异常
+     */
+    private BusinessException translateDuplicateKey(DuplicateKeyException e, User user) {
+        // 唯一约束冲突说明冲突的行已经提交（InnoDB会等待未提交的插入结束再判断），与本事务是否回滚无关，可以立即写入缓存
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.contains(UNIQUE_KEY_USERNAME)) {
+            takenIdentifierCache.markUsernameTaken(user.getUsername());
+            log.info("注册失败，用户名已存在：{}", user.getUsername());
+            return BusinessException.userAlreadyExists("用户名已存在");
+        }
+        if (message != null && message.contains(UNIQUE_KEY_EMAIL)) {
+            takenIdentifierCache.markEmailTaken(user.getEmail());
+            log.info("注册失败，邮箱已被注册：{}", user.getEmail());
+            return BusinessException.userAlreadyExists("邮箱已被注册");
+        }
+        log.warn("注册失败，未识别的唯一约束冲突：{}", message);
+        return BusinessException.userAlreadyExists("用户已存在");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,346 @@
+package com.mcallzbl.user.service.impl;
+
+import com.mcallzbl.common.BusinessException;
+import com.mcallzbl.user.config.BulkMailConfig;
+import com.mcallzbl.user.mapper.UserMapper;
+import com.mcallzbl.user.pojo.dto.BulkNotificationProgress;
+import com.mcallzbl.user.pojo.entity.User;
+import com.mcallzbl.user.pojo.request.BulkNotificationRequest;
+import com.mcallzbl.user.service.BulkNotificationService;
+import com.mcallzbl.user.utils.EmailI18nUtils;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 批量通知邮件服务实现
+ * <ul>
+ *     <li>按语言分组：每种语言按ID键集分页读取用户，每页一次短查询，发送期间不占用数据库连接</li>
+ *     <li>每种语言的标题和正文只渲染一次，所有收件人共用</li>
+ *     <li>按批发送：一批邮件一次交给JavaMailSender，连接池下整批复用同一个SMTP连接</li>
+ *     <li>限速：按配置的每秒最大发送数控制节奏</li>
+ *     <li>断点：每批发送后把各语言已处理到的用户ID写入Redis，任务中断后用同一个jobId重新提交即可继续</li>
+ *     <li>互斥：同一个jobId通过Redis锁保证只在一个节点上执行，执行期间每批续期</li>
+ *     <li>每个节点同时只执行一个任务，正在执行时拒绝新的提交，不排队等待，避免排队期间任务锁过期</li>
+ * </ul>
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkNotificationServiceImpl implements BulkNotificationService {
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_SENT = "sent";
+    private static final String FIELD_FAILED = "failed";
+    private static final String CHECKPOINT_PREFIX = "cp:";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+    private static final String LOCK_SUFFIX = ":lock";
+    /**
+     * 未设置语言的用户按该语言发送，与user表language列的默认值一致
+     */
+    private static final String DEFAULT_LANGUAGE = "zh-CN";
+    /**
+     * 未设置语言的用户单独记录断点
+     */
+    private static final String UNSET_LANGUAGE_SUFFIX = "#unset";
+
+    private static final RedisScript<Long> LOCK_RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/lock_renew.lua"), Long.class);
+    private static final RedisScript<Long> LOCK_RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/lock_release.lua"), Long.class);
+
+    private final UserMapper userMapper;
+    private final JavaMailSender mailSender;
+    private final TemplateEngine emailTemplateEngine;
+    private final EmailI18nUtils emailI18nUtils;
+    private final StringRedisTemplate redisTemplate;
+    private final BulkMailConfig bulkMailConfig;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-notification");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * 本节点是否有任务在执行，从获取任务锁之前一直到任务结束
+     */
+    private final AtomicBoolean busy = new AtomicBoolean();
+
+    @Value("${spring.mail.username:noreply@userservice.com}")
+    private String fromEmail;
+
+    @Override
+    public String submit(BulkNotificationRequest request) {
+        String jobId = StringUtils.hasText(request.getJobId()) ? request.getJobId() : UUID.randomUUID().toString();
+        // 任务提交后立即开始执行，锁的过期时间只需覆盖两批之间的间隔
+        if (!busy.compareAndSet(false, true)) {
+            throw new BusinessException(emailI18nUtils.getMessage("email.bulk.node.busy"));
+        }
+        JobLock lock = new JobLock(jobKey(jobId) + LOCK_SUFFIX, UUID.randomUUID().toString());
+        boolean locked = false;
+        try {
+            // 同一任务只能在一个节点上执行，防止重复提交导致重复发送
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(lock.key(), lock.token(), Duration.ofSeconds(bulkMailConfig.getLockTtlSeconds())))) {
+                throw new BusinessException(emailI18nUtils.getMessage("email.bulk.job.running", jobId));
+            }
+            locked = true;
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            String jobKey = jobKey(jobId);
+            hash.put(jobKey, FIELD_STATUS, STATUS_RUNNING);
+            redisTemplate.expire(jobKey, Duration.ofHours(bulkMailConfig.getProgressTtlHours()));
+
+            executor.submit(() -> {
+                try {
+                    runJob(jobId, request, lock);
+                } finally {
+                    releaseLock(lock);
+                    busy.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (locked) {
+                releaseLock(lock);
+            }
+            busy.set(false);
+            throw e;
+        }
+        log.info("批量通知任务已提交：jobId={}, subjectKey={}", jobId, request.getSubjectKey());
+        return jobId;
+    }
+
+    @Override
+    public BulkNotificationProgress getProgress(String jobId) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        Map<String, String> entries = hash.entries(jobKey(jobId));
+        if (entries.isEmpty()) {
+            return null;
+        }
+        Map<String, Long> checkpoints = new HashMap<>();
+        entries.forEach((field, value) -> {
+            if (field.startsWith(CHECKPOINT_PREFIX)) {
+                checkpoints.put(field.substring(CHECKPOINT_PREFIX.length()), Long.parseLong(value));
+            }
+        });
+        return BulkNotificationProgress.builder()
+                .jobId(jobId)
+                .status(entries.get(FIELD_STATUS))
+                .sent(Long.parseLong(entries.getOrDefault(FIELD_SENT, "0")))
+                .failed(Long.parseLong(entries.getOrDefault(FIELD_FAILED, "0")))
+                .checkpoints(checkpoints)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runJob(String jobId, BulkNotificationRequest request, JobLock lock) {
+        String jobKey = jobKey(jobId);
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        try {
+            List<String> languages = CollectionUtils.isEmpty(request.getLanguages())
+                    ? userMapper.selectActiveLanguages()
+                    : request.getLanguages();
+            for (String language : languages) {
+                RenderedNotification rendered = render(request, Locale.forLanguageTag(language));
+                sendToRecipients(jobKey, lock, language, language, rendered,
+                        (afterId, limit) -> userMapper.selectActiveUsersByLanguage(language, afterId, limit));
+                if (DEFAULT_LANGUAGE.equals(language)) {
+                    sendToRecipients(jobKey, lock, language, language + UNSET_LANGUAGE_SUFFIX, rendered,
+                            userMapper::selectActiveUsersWithoutLanguage);
+                }
+            }
+            hash.put(jobKey, FIELD_STATUS, STATUS_COMPLETED);
+            log.info("批量通知任务完成：jobId={}", jobId);
+        } catch (Exception e) {
+            hash.put(jobKey, FIELD_STATUS, STATUS_FAILED);
+            log.error("批量通知任务中断，可使用相同jobId重新提交以继续：jobId={}", jobId, e);
+        }
+    }
+
+    /**
+     * 按ID分页读取收件人并分批发送
+     * 每页是一次独立的短查询，不在事务中持有连接和快照，发送和限速等待都在查询之外进行
+     *
+     * @param checkpoint 断点字段名（不含前缀）
+     */
+    private void sendToRecipients(String jobKey, JobLock lock, String language, String checkpoint,
+                                  RenderedNotification rendered, RecipientPageLoader loader) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        String saved = hash.get(jobKey, CHECKPOINT_PREFIX + checkpoint);
+        long lastId = saved != null ? Long.parseLong(saved) : 0L;
+        int batchSize = Math.max(1, bulkMailConfig.getBatchSize());
+        List<MimeMessage> batch = new ArrayList<>(batchSize);
+        long windowStart = System.nanoTime();
+
+        while (true) {
+            List<User> page = loader.load(lastId, batchSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            for (User user : page) {
+                batch.add(createMessage(user.getEmail(), rendered));
+                lastId = user.getId();
+            }
+            flush(jobKey, lock, language, checkpoint, batch, lastId);
+            if (page.size() < batchSize) {
+                return;
+            }
+            windowStart = throttle(windowStart, page.size());
+        }
+    }
+
+    /**
+     * 发送一批邮件并记录断点
+     * 单个收件人失败只计入失败数，不影响断点前进
+     */
+    private void flush(String jobKey, JobLock lock, String language, String checkpoint,
+                       List<MimeMessage> batch, long lastId) {
+        renewLock(lock);
+        int failed = 0;
+        try {
+            mailSender.send(batch.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages().isEmpty() ? batch.size() : e.getFailedMessages().size();
+            log.warn("批量通知部分发送失败：language={}, 失败{}封, 原因={}", language, failed, e.getMessage());
+        }
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        hash.increment(jobKey, FIELD_SENT, batch.size() - failed);
+        if (failed > 0) {
+            hash.increment(jobKey, FIELD_FAILED, failed);
+        }
+        hash.put(jobKey, CHECKPOINT_PREFIX + checkpoint, String.valueOf(lastId));
+        batch.clear();
+    }
+
+    /**
+     * 按每秒最大发送数控制节奏
+     *
+     * @return 下一批的计时起点
+     */
+    private long throttle(long windowStart, int sentInWindow) {
+        int maxPerSecond = bulkMailConfig.getMaxMessagesPerSecond();
+        if (maxPerSecond > 0) {
+            long expectedNanos = sentInWindow * 1_000_000_000L / maxPerSecond;
+            long remainingNanos = expectedNanos - (System.nanoTime() - windowStart);
+            if (remainingNanos > 0) {
+                try {
+                    Thread.sleep(Duration.ofNanos(remainingNanos));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("批量通知任务被中断", e);
+                }
+            }
+        }
+        return System.nanoTime();
+    }
+
+    private RenderedNotification render(BulkNotificationRequest request, Locale locale) {
+        Object[] args = request.getArgs() != null ? request.getArgs().toArray() : null;
+        String subject = emailI18nUtils.getMessage(request.getSubjectKey(), args, locale);
+        String content = emailI18nUtils.getMessage(request.getContentKey(), args, locale);
+
+        Context context = new Context(locale);
+        context.setVariable("emailTitle", subject);
+        context.setVariable("content", content);
+        context.setVariable("companyName", emailI18nUtils.getMessage("email.company.name", locale));
+        context.setVariable("signatureThanks", emailI18nUtils.getMessage("email.signature.thanks", locale));
+        context.setVariable("teamName", emailI18nUtils.getMessage("email.team.name", locale));
+        context.setVariable("footerSlogan", emailI18nUtils.getMessage("email.footer.slogan", locale));
+        String html = emailTemplateEngine.process("notification-template", context);
+        return new RenderedNotification(subject, html);
+    }
+
+    private MimeMessage createMessage(String to, RenderedNotification rendered) {
+        try {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(to);
+            helper.setSubject(rendered.subject());
+            helper.setText(rendered.html(), true);
+            return mimeMessage;
+        } catch (MessagingException e) {
+            throw new IllegalStateException("构建通知邮件失败：" + to, e);
+        }
+    }
+
+    /**
+     * 续期任务锁，锁已被其他节点持有时中止任务，避免两个节点同时发送
+     */
+    private void renewLock(JobLock lock) {
+        Long renewed = redisTemplate.execute(LOCK_RENEW_SCRIPT, List.of(lock.key()), lock.token(),
+                String.valueOf(Duration.ofSeconds(bulkMailConfig.getLockTtlSeconds()).toMillis()));
+        if (renewed == null || renewed == 0) {
+            throw new IllegalStateException("批量通知任务锁已失效：" + lock.key());
+        }
+    }
+
+    private void releaseLock(JobLock lock) {
+        try {
+            redisTemplate.execute(LOCK_RELEASE_SCRIPT, List.of(lock.key()), lock.token());
+        } catch (Exception e) {
+            log.warn("释放批量通知任务锁失败，将在{}秒后自动过期：key={}", bulkMailConfig.getLockTtlSeconds(), lock.key());
+        }
+    }
+
+    private String jobKey(String jobId) {
+        return bulkMailConfig.getKeyPrefix() + ":" + jobId;
+    }
+
+    /**
+     * 按ID分页读取收件人
+     */
+    @FunctionalInterface
+    private interface RecipientPageLoader {
+        List<User> load(long afterId, int limit);
+    }
+
+    /**
+     * 任务锁
+     *
+     * @param key   锁键
+     * @param token 当前节点持有锁的令牌
+     */
+    private record JobLock(String key, String token) {
+    }
+
+    /**
+     * 某个语言渲染完成的通知
+     */
+    private record RenderedNotification(String subject, String html) {
+    }
+}
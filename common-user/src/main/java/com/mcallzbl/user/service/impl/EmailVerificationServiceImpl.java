@@ -7,13 +7,14 @@ import com.mcallzbl.user.pojo.response.VerificationEmailResponse;
 import com.mcallzbl.user.service.EmailService;
 import com.mcallzbl.user.service.EmailVerificationService;
 import com.mcallzbl.user.utils.EmailI18nUtils;
+import com.mcallzbl.user.verification.VerificationCodeStore;
+import com.mcallzbl.user.verification.VerifyResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 /**
  * @author mcallzbl
@@ -25,13 +26,13 @@ import java.util.concurrent.TimeUnit;
 @Validated
 @RequiredArgsConstructor
 public class EmailVerificationServiceImpl implements EmailVerificationService {
-    private static final String VERIFICATION_CODE_PREFIX = "email_verification:";
-    private static final String SEND_LIMIT_PREFIX = "email_send_limit:";
     private static final int CODE_LENGTH = 6;
-    private static final int CODE_EXPIRE_MINUTES = 5; // 验证码5分钟过期
-    private static final int SEND_LIMIT_SECONDS = 60; // 发送限制60秒
+    private static final Duration CODE_TTL = Duration.ofMinutes(5); // 验证码5分钟过期
+    private static final Duration SEND_INTERVAL = Duration.ofSeconds(60); // 发送限制60秒
+    private static final int MAX_VERIFY_ATTEMPTS = 5; // 错误5次后验证码作废
+
     private final EmailService emailService;
-    private final StringRedisTemplate redisTemplate;
+    private final VerificationCodeStore verificationCodeStore;
     private final EmailI18nUtils emailI18nUtils;
 
     @Override
@@ -39,80 +40,52 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
         String email = dto.getEmail();
         VerificationEmailRequest.Purpose purpose = dto.getPurpose();
 
-        // 检查发送频率限制
-        checkSendLimit(email, purpose.getValue());
-
         // 生成6位数字验证码
         String code = RandomUtil.randomNumbers(CODE_LENGTH);
 
+        // 发送频率限制与验证码写入一次完成，并发请求只有一个能通过
+        if (!verificationCodeStore.issue(email, purpose, code, CODE_TTL, SEND_INTERVAL)) {
+            throw new BusinessException(emailI18nUtils.getMessage("email.send.limit.exceeded"));
+        }
+
         try {
             // 发送邮件
             emailService.sendVerificationCode(email, code, purpose);
 
-            // 存储验证码到Redis
-            String key = buildVerificationKey(email, purpose.getValue());
-            redisTemplate.opsForValue().set(key, code, CODE_EXPIRE_MINUTES, TimeUnit.MINUTES);
-
-            // 设置发送频率限制
-            setSendLimit(email, purpose.getValue());
-
             log.info("邮件验证码发送成功：邮箱={}, 目的={}", email, purpose.getValue());
 
             return VerificationEmailResponse.builder()
                     .email(email)
-                    .expireTime(System.currentTimeMillis() + CODE_EXPIRE_MINUTES * 60 * 1000L)
+                    .expireTime(System.currentTimeMillis() + CODE_TTL.toMillis())
                     .build();
 
         } catch (Exception e) {
             log.error("邮件验证码发送失败：邮箱={}, 目的={}", email, purpose, e);
+            // 邮件未发出时撤销验证码和发送限制，允许用户立即重试
+            revokeQuietly(email, purpose);
             throw new BusinessException(emailI18nUtils.getMessage("email.verification.send.failed"));
         }
     }
 
     @Override
     public boolean verifyCode(String email, String code, VerificationEmailRequest.Purpose purpose) {
-        String key = buildVerificationKey(email, purpose.getValue());
-        String storedCode = redisTemplate.opsForValue().get(key);
-
-        if (storedCode == null) {
-            log.warn("验证码已过期或不存在：邮箱={}, 目的={}", email, purpose.getValue());
-            return false;
+        String purposeValue = purpose.getValue();
+        VerifyResult result = verificationCodeStore.verify(email, purpose, code, MAX_VERIFY_ATTEMPTS);
+
+        switch (result) {
+            case VERIFIED -> log.info("邮件验证码验证成功：邮箱={}, 目的={}", email, purposeValue);
+            case NOT_FOUND -> log.warn("验证码已过期或不存在：邮箱={}, 目的={}", email, purposeValue);
+            case TOO_MANY_ATTEMPTS -> log.warn("邮件验证码错误次数过多，验证码已作废：邮箱={}, 目的={}", email, purposeValue);
+            case MISMATCH -> log.warn("邮件验证码验证失败：邮箱={}, 目的={}, 提供的验证码={}", email, purposeValue, code);
         }
-
-        boolean isValid = storedCode.equals(code);
-        if (isValid) {
-            // 验证成功后删除验证码
-            redisTemplate.delete(key);
-            log.info("邮件验证码验证成功：邮箱={}, 目的={}", email, purpose.getValue());
-        } else {
-            log.warn("邮件验证码验证失败：邮箱={}, 目的={}, 提供的验证码={}", email, purpose.getValue(), code);
-        }
-
-        return isValid;
+        return result == VerifyResult.VERIFIED;
     }
 
-    private void checkSendLimit(String email, String purpose) {
-        String limitKey = buildSendLimitKey(email, purpose);
-        String lastSendTime = redisTemplate.opsForValue().get(limitKey);
-
-        if (lastSendTime != null) {
-            throw new BusinessException(emailI18nUtils.getMessage("email.send.limit.exceeded"));
+    private void revokeQuietly(String email, VerificationEmailRequest.Purpose purpose) {
+        try {
+            verificationCodeStore.revoke(email, purpose);
+        } catch (Exception e) {
+            log.warn("撤销验证码失败：邮箱={}, 目的={}, 原因={}", email, purpose, e.getMessage());
         }
     }
-
-    private void setSendLimit(String email, String purpose) {
-        String limitKey = buildSendLimitKey(email, purpose);
-        redisTemplate.opsForValue().set(limitKey,
-                String.valueOf(System.currentTimeMillis()),
-                SEND_LIMIT_SECONDS,
-                TimeUnit.SECONDS);
-    }
-
-    private String buildVerificationKey(String email, String purpose) {
-        return VERIFICATION_CODE_PREFIX + email + ":" + purpose;
-    }
-
-    private String buildSendLimitKey(String email, String purpose) {
-        return SEND_LIMIT_PREFIX + email + ":" + purpose;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.mcallzbl.user.service.impl;
+
+import com.mcallzbl.user.config.MailQueueConfig;
+import com.mcallzbl.user.mail.MailPriority;
+import com.mcallzbl.user.mail.OutboundMail;
+import com.mcallzbl.user.mail.RedisMailQueue;
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+import com.mcallzbl.user.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * 基于队列的邮件服务
+ * 只负责把邮件投递到Redis队列，实际发送由 {@link com.mcallzbl.user.mail.MailQueueWorker} 完成，
+ * 请求线程不再等待SMTP
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.mail.queue", name = "enabled", havingValue = "true")
+public class QueuedEmailServiceImpl implements EmailService {
+    private final RedisMailQueue mailQueue;
+    private final MailQueueConfig mailQueueConfig;
+
+    @Override
+    public void sendVerificationCode(String to, String code, VerificationEmailRequest.Purpose purpose) {
+        // 记录当前请求的语言，消费者发送时按该语言渲染邮件
+        OutboundMail mail = OutboundMail.builder()
+                .to(to)
+                .code(code)
+                .purpose(purpose)
+                .locale(LocaleContextHolder.getLocale().toLanguageTag())
+                .priority(MailPriority.HIGH)
+                .deadline(System.currentTimeMillis() + mailQueueConfig.getMaxDeliveryMillis())
+                .build();
+        mailQueue.enqueue(mail);
+        log.info("验证码邮件已入队，收件人：{}，目的：{}", to, purpose);
+    }
+}
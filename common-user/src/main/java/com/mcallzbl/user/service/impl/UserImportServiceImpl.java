@@ -0,0 +1,400 @@
+package com.mcallzbl.user.service.impl;
+
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcallzbl.common.enums.DeleteStatus;
+import com.mcallzbl.user.config.UserImportConfig;
+import com.mcallzbl.user.enums.Gender;
+import com.mcallzbl.user.enums.UserImportFormat;
+import com.mcallzbl.user.enums.UserStatus;
+import com.mcallzbl.user.importer.UserImportReader;
+import com.mcallzbl.user.mapper.UserMapper;
+import com.mcallzbl.user.pojo.dto.UserImportFailure;
+import com.mcallzbl.user.pojo.dto.UserImportProgress;
+import com.mcallzbl.user.pojo.dto.UserImportRecord;
+import com.mcallzbl.user.pojo.dto.UserImportReport;
+import com.mcallzbl.user.pojo.entity.User;
+import com.mcallzbl.user.service.UserImportService;
+import com.mcallzbl.user.utils.UsernameGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * 用户批量导入服务实现
+ * 每批的处理流程：
+ * <ol>
+ *     <li>校验必填字段和用户名长度，批内重复邮箱直接判为失败</li>
+ *     <li>一次IN查询排除已注册的邮箱</li>
+ *     <li>一次IN查询找出已占用的用户名，冲突记录按轮次批量查询候选用户名（name_1、name_2...）</li>
+ *     <li>在ForkJoin线程池中并行计算密码哈希，已提供哈希的记录跳过</li>
+ *     <li>在独立事务中批量插入；失败时整批回滚，再逐条插入定位失败记录</li>
+ * </ol>
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    private static final int USERNAME_MAX_LENGTH = 20;
+    private static final int CANDIDATES_PER_ROUND = 10;
+
+    private final UserMapper userMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final UserImportConfig config;
+    private final ForkJoinPool hashPool;
+    private final TransactionTemplate batchTransaction;
+
+    public UserImportServiceImpl(UserMapper userMapper,
+                                 SqlSessionFactory sqlSessionFactory,
+                                 PlatformTransactionManager transactionManager,
+                                 PasswordEncoder passwordEncoder,
+                                 ObjectMapper objectMapper,
+                                 UserImportConfig config) {
+        this.userMapper = userMapper;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.hashPool = new ForkJoinPool(Math.max(1, config.getHashParallelism()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    @Override
+    public UserImportReport importUsers(InputStream input, UserImportFormat format,
+                                        Consumer<UserImportProgress> progressListener) {
+        long start = System.currentTimeMillis();
+        ImportState state = new ImportState();
+        int chunkSize = Math.max(1, config.getChunkSize());
+
+        UserImportReader reader = new UserImportReader(input, format, objectMapper);
+        try {
+            List<UserImportReader.Line> chunk = new ArrayList<>(chunkSize);
+            UserImportReader.Line line;
+            while ((line = reader.next()) != null) {
+                chunk.add(line);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, state, progressListener);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, state, progressListener);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取导入文件失败", e);
+        }
+
+        UserImportReport report = UserImportReport.builder()
+                .progress(state.snapshot())
+                .failures(state.failures)
+                .elapsedMillis(System.currentTimeMillis() - start)
+                .build();
+        log.info("用户导入完成：成功{}条，失败{}条，重命名{}条，耗时{}ms",
+                state.imported, state.failed, state.renamed, report.getElapsedMillis());
+        return report;
+    }
+
+    private void processChunk(List<UserImportReader.Line> chunk, ImportState state,
+                              Consumer<UserImportProgress> progressListener) {
+        List<Pending> pending = validate(chunk, state);
+        try {
+            excludeExistingEmails(pending, state);
+            resolveUsernames(pending, state);
+            hashPasswords(pending);
+            insert(pending, state);
+        } catch (Exception e) {
+            // 数据库不可用等整批错误：本批尚未处理的记录全部记为失败，继续处理后续批次
+            log.error("第{}批导入失败", state.chunks + 1, e);
+            for (Pending p : pending) {
+                state.fail(p.lineNumber, p.record, "批处理失败：" + e.getMessage());
+            }
+        }
+        state.chunks++;
+        state.processed += chunk.size();
+
+        UserImportProgress progress = state.snapshot();
+        log.info("用户导入进度：第{}批，已处理{}条，成功{}条，失败{}条",
+                progress.getChunks(), progress.getProcessed(), progress.getImported(), progress.getFailed());
+        if (progressListener != null) {
+            progressListener.accept(progress);
+        }
+    }
+
+    // ==================== 处理步骤 ====================
+
+    private List<Pending> validate(List<UserImportReader.Line> chunk, ImportState state) {
+        List<Pending> pending = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (UserImportReader.Line line : chunk) {
+            UserImportRecord record = line.record();
+            if (record == null) {
+                state.fail(line.lineNumber(), null, line.error());
+                continue;
+            }
+            if (!StringUtils.hasText(record.getEmail())) {
+                state.fail(line.lineNumber(), record, "邮箱不能为空");
+                continue;
+            }
+            if (!StringUtils.hasText(record.getPassword()) && !StringUtils.hasText(record.getPasswordHash())) {
+                state.fail(line.lineNumber(), record, "密码和密码哈希不能同时为空");
+                continue;
+            }
+            if (!emails.add(normalize(record.getEmail()))) {
+                state.fail(line.lineNumber(), record, "邮箱在导入文件中重复");
+                continue;
+            }
+            if (StringUtils.hasText(record.getUsername()) && record.getUsername().trim().length() > USERNAME_MAX_LENGTH) {
+                state.fail(line.lineNumber(), record, "用户名长度不能超过" + USERNAME_MAX_LENGTH + "个字符");
+                continue;
+            }
+            String username = StringUtils.hasText(record.getUsername())
+                    ? record.getUsername().trim()
+                    : UsernameGenerator.generateUsernameFromEmail(record.getEmail());
+            pending.add(new Pending(line.lineNumber(), record, username));
+        }
+        return pending;
+    }
+
+    private void excludeExistingEmails(List<Pending> pending, ImportState state) {
+        List<String> emails = pending.stream().map(p -> p.record.getEmail().trim()).toList();
+        Set<String> existing = normalizedSet(userMapper.selectExistingEmails(emails));
+        pending.removeIf(p -> {
+            if (existing.contains(normalize(p.record.getEmail()))) {
+                state.fail(p.lineNumber, p.record, "邮箱已被注册");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 为整批记录分配不冲突的用户名
+     * 第一次查询确认原用户名，之后每轮为所有冲突记录生成一组候选并一次查询，查询次数与冲突记录数无关
+     */
+    private void resolveUsernames(List<Pending> pending, ImportState state) {
+        Set<String> taken = normalizedSet(userMapper.selectExistingUsernames(
+                pending.stream().map(p -> p.username).distinct().toList()));
+        Set<String> assigned = new HashSet<>();
+        List<Pending> conflicts = new ArrayList<>();
+        for (Pending p : pending) {
+            if (!taken.contains(normalize(p.username)) && assigned.add(normalize(p.username))) {
+                continue;
+            }
+            conflicts.add(p);
+        }
+
+        int nextSuffix = 1;
+        for (int round = 0; round < config.getRenameRounds() && !conflicts.isEmpty(); round++) {
+            Map<Pending, List<String>> candidates = new HashMap<>();
+            Set<String> allCandidates = new HashSet<>();
+            for (Pending p : conflicts) {
+                List<String> names = new ArrayList<>(CANDIDATES_PER_ROUND);
+                for (int i = 0; i < CANDIDATES_PER_ROUND; i++) {
+                    names.add(withSuffix(p.username, nextSuffix + i));
+                }
+                candidates.put(p, names);
+                allCandidates.addAll(names);
+            }
+            nextSuffix += CANDIDATES_PER_ROUND;
+            Set<String> candidateTaken = normalizedSet(userMapper.selectExistingUsernames(allCandidates));
+
+            Iterator<Pending> iterator = conflicts.iterator();
+            while (iterator.hasNext()) {
+                Pending p = iterator.next();
+                for (String name : candidates.get(p)) {
+                    if (!candidateTaken.contains(normalize(name)) && assigned.add(normalize(name))) {
+                        p.username = name;
+                        state.renamed++;
+                        iterator.remove();
+                        break;
+                    }
+                }
+            }
+        }
+
+        // 多轮后仍冲突的记录使用随机用户名，极小概率的冲突在插入时兜底
+        for (Pending p : conflicts) {
+            String name;
+            do {
+                name = UsernameGenerator.generateRandomUsername();
+            } while (!assigned.add(normalize(name)));
+            p.username = name;
+            state.renamed++;
+        }
+    }
+
+    private void hashPasswords(List<Pending> pending) {
+        List<Pending> toHash = pending.stream()
+                .filter(p -> !StringUtils.hasText(p.record.getPasswordHash()))
+                .toList();
+        if (toHash.isEmpty()) {
+            return;
+        }
+        // 在独立的ForkJoin池中执行并行流，不占用公共池
+        hashPool.submit(() -> toHash.parallelStream()
+                .forEach(p -> p.passwordHash = passwordEncoder.encode(p.record.getPassword()))).join();
+        for (Pending p : pending) {
+            if (p.passwordHash == null) {
+                p.passwordHash = p.record.getPasswordHash();
+            }
+        }
+    }
+
+    private void insert(List<Pending> pending, ImportState state) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<User> users = pending.stream().map(this::toUser).toList();
+        MybatisBatch.Method<User> method = new MybatisBatch.Method<>(UserMapper.class);
+        try {
+            // 批量插入在独立事务中执行，中途失败时已写入的行一并回滚，逐条重试不会重复插入
+            batchTransaction.executeWithoutResult(status ->
+                    new MybatisBatch<>(sqlSessionFactory, users).execute(method.insert()));
+            state.imported += users.size();
+            return;
+        } catch (Exception e) {
+            log.warn("批量插入失败，已回滚，逐条插入以定位失败记录: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            Pending p = pending.get(i);
+            User user = users.get(i);
+            // 回滚的批量插入可能已经回填了自增ID
+            user.setId(null);
+            try {
+                userMapper.insert(user);
+                state.imported++;
+            } catch (Exception e) {
+                state.fail(p.lineNumber, p.record, "插入失败：" + e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private User toUser(Pending p) {
+        UserImportRecord record = p.record;
+        User user = User.builder()
+                .username(p.username)
+                .email(record.getEmail().trim())
+                .passwordHash(p.passwordHash)
+                .nickname(StringUtils.hasText(record.getNickname()) ? record.getNickname() : p.username)
+                .phone(record.getPhone())
+                .emailVerified(Boolean.TRUE.equals(record.getEmailVerified()))
+                .gender(Gender.UNKNOWN)
+                .status(UserStatus.NORMAL)
+                .deleteStatus(DeleteStatus.NORMAL)
+                .build();
+        if (StringUtils.hasText(record.getLanguage())) {
+            user.setLanguage(record.getLanguage());
+        }
+        if (StringUtils.hasText(record.getTimezone())) {
+            user.setTimezone(record.getTimezone());
+        }
+        return user;
+    }
+
+    private static String withSuffix(String username, int suffix) {
+        String tail = "_" + suffix;
+        String base = username.length() + tail.length() > USERNAME_MAX_LENGTH
+                ? username.substring(0, USERNAME_MAX_LENGTH - tail.length())
+                : username;
+        return base + tail;
+    }
+
+    /**
+     * 数据库使用不区分大小写的排序规则，比较前统一转小写
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalizedSet(List<String> values) {
+        Set<String> set = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            set.add(normalize(value));
+        }
+        return set;
+    }
+
+    /**
+     * 等待插入的记录
+     */
+    private static final class Pending {
+        private final long lineNumber;
+        private final UserImportRecord record;
+        private String username;
+        private String passwordHash;
+
+        private Pending(long lineNumber, UserImportRecord record, String username) {
+            this.lineNumber = lineNumber;
+            this.record = record;
+            this.username = username;
+        }
+    }
+
+    /**
+     * 导入过程中的累计状态
+     */
+    private final class ImportState {
+        private final List<UserImportFailure> failures = new ArrayList<>();
+        private int chunks;
+        private long processed;
+        private long imported;
+        private long failed;
+        private long renamed;
+
+        private void fail(long lineNumber, UserImportRecord record, String reason) {
+            failed++;
+            if (failures.size() < config.getMaxReportedFailures()) {
+                failures.add(UserImportFailure.builder()
+                        .lineNumber(lineNumber)
+                        .username(record != null ? record.getUsername() : null)
+                        .email(record != null ? record.getEmail() : null)
+                        .reason(reason)
+                        .build());
+            }
+        }
+
+        private UserImportProgress snapshot() {
+            return UserImportProgress.builder()
+                    .chunks(chunks)
+                    .processed(processed)
+                    .imported(imported)
+                    .failed(failed)
+                    .renamed(renamed)
+                    .build();
+        }
+    }
+}
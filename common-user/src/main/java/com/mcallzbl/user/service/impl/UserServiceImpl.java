@@ -1,6 +1,7 @@
 package com.mcallzbl.user.service.impl;
 
 import com.mcallzbl.common.BusinessException;
+import com.mcallzbl.common.ResultCode;
 import com.mcallzbl.common.enums.DeleteStatus;
 import com.mcallzbl.user.context.UserContext;
 import com.mcallzbl.user.enums.Gender;
@@ -9,12 +10,31 @@ import com.mcallzbl.user.mapper.UserMapper;
 import com.mcallzbl.user.pojo.entity.User;
 import com.mcallzbl.user.pojo.vo.UserVO;
 import com.mcallzbl.user.service.UserService;
+import com.mcallzbl.user.utils.UsernameAllocator;
 import com.mcallzbl.user.utils.UsernameGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * 用户服务实现类
  * 提供用户查询、创建和验证功能
@@ -28,7 +48,22 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final String REGISTRATION_LOCK_PREFIX = "user_registration_lock:";
+    private static final Duration REGISTRATION_LOCK_TTL = Duration.ofSeconds(10);
+    private static final long REGISTRATION_WAIT_MILLIS = 5000;
+    private static final long REGISTRATION_POLL_MILLIS = 100;
+    private static final RedisScript<Long> LOCK_RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/lock_release.lua"), Long.class);
+
     private final UserMapper userMapper;
+    private final UsernameAllocator usernameAllocator;
+    private final StringRedisTemplate redisTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 当前节点正在进行的邮箱自动注册
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<User>> pendingRegistrations = new ConcurrentHashMap<>();
 
     // ==================== 直接查询方法（可能返回null） ====================
 
@@ -141,10 +176,12 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public User createUserByEmail(String email) {
+        // 昵称不要求唯一，与用户名共用一次分配结果
+        String username = usernameAllocator.allocate(UsernameGenerator.generateUsernameFromEmail(email));
         User user = User.builder()
                 .email(email)
-                .nickname(generateUniqueUsername(UsernameGenerator.generateUsernameFromEmail(email)))
-                .username(generateUniqueUsername(UsernameGenerator.generateUsernameFromEmail(email)))
+                .nickname(username)
+                .username(username)
                 .emailVerified(true)
                 .gender(Gender.UNKNOWN)
                 .status(UserStatus.NORMAL)
@@ -154,6 +191,47 @@ public class UserServiceImpl implements UserService {
         return user;
     }
 
+    /**
+     * 邮箱对应的用户不存在时创建用户
+     * <ul>
+     *     <li>同一节点内：同一邮箱的并发请求共享第一个请求的结果，不再访问数据库</li>
+     *     <li>跨节点：通过Redis锁保证只有一个节点插入，其他节点等待该用户出现</li>
+     * </ul>
+     * 调用方通常已经在事务中且读过该邮箱，REPEATABLE READ下同一事务看不到其他节点之后提交的用户。
+     * 因此检查、插入和等待都在独立的新事务中进行，插入立即提交后再释放锁，等待者每次轮询都使用新的快照
+     *
+     * @param email 邮箱
+     * @return 已存在或新创建的用户
+     */
+    @Override
+    public User createUserByEmailIfAbsent(String email) {
+        String normalizedEmail = email.trim().toLowerCase(Locale.ROOT);
+        CompletableFuture<User> registration = new CompletableFuture<>();
+        CompletableFuture<User> pending = pendingRegistrations.putIfAbsent(normalizedEmail, registration);
+        if (pending != null) {
+            return awaitRegistration(pending, email);
+        }
+
+        String lockKey = REGISTRATION_LOCK_PREFIX + normalizedEmail;
+        String lockToken = UUID.randomUUID().toString();
+        boolean locked = false;
+        try {
+            locked = Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(lockKey, lockToken, REGISTRATION_LOCK_TTL));
+            User user = locked ? insertIfAbsent(email) : waitForUser(email);
+            registration.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            registration.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingRegistrations.remove(normalizedEmail, registration);
+            if (locked) {
+                releaseLock(lockKey, lockToken);
+            }
+        }
+    }
+
     /**
      * 插入新用户到数据库
      *
@@ -225,36 +303,77 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    // ==================== 自动注册私有方法 ====================
+
     /**
-     * 生成唯一的用户名
-     * 检查用户名是否已存在，如果存在则添加随机后缀重新生成
-     *
-     * @param baseUsername 基础用户名
-     * @return 唯一的用户名
+     * 持有注册锁时在新事务中检查并插入，返回前已提交
+     * 加锁前其他节点可能已完成注册，唯一约束冲突说明用户已被并发插入，都重新读取已提交的用户
      */
-    private String generateUniqueUsername(String baseUsername) {
-        // 检查基础用户名是否已存在
-        if (userMapper.selectByUsername(baseUsername) == null) {
-            return baseUsername;
+    private User insertIfAbsent(String email) {
+        try {
+            return inNewTransaction(status -> {
+                User existing = userMapper.selectByEmail(email);
+                return existing != null ? existing : createUserByEmail(email);
+            });
+        } catch (DuplicateKeyException e) {
+            User user = inNewTransaction(status -> userMapper.selectByEmail(email));
+            if (user == null) {
+                throw e;
+            }
+            return user;
         }
+    }
 
-        // 如果已存在，添加随机后缀
-        int suffix = 1;
-        String uniqueUsername;
+    /**
+     * 在独立的新事务中执行，挂起调用方的事务，读取时使用新的快照
+     */
+    private <T> T inNewTransaction(TransactionCallback<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(action);
+    }
 
-        do {
-            uniqueUsername = baseUsername + "_" + suffix;
-            suffix++;
+    private User awaitRegistration(CompletableFuture<User> pending, String email) {
+        try {
+            return pending.get(REGISTRATION_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw BusinessException.of(ResultCode.FAILED, "用户自动注册失败，请稍后再试");
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("等待并发注册结果失败：email={}, 原因={}", email, e.getMessage());
+            throw BusinessException.of(ResultCode.FAILED, "用户自动注册失败，请稍后再试");
+        }
+    }
 
-            // 防止无限循环，最多尝试100次
-            if (suffix > 100) {
-                log.warn("用户名生成尝试次数过多，使用完全随机的用户名");
-                return generateUniqueUsername(UsernameGenerator.generateRandomUsername());
+    /**
+     * 其他节点持有注册锁时，等待该用户提交
+     * 每次轮询都在新事务中读取，调用方事务的快照看不到其他节点之后提交的数据
+     */
+    private User waitForUser(String email) {
+        long deadline = System.currentTimeMillis() + REGISTRATION_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(REGISTRATION_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
+            User user = inNewTransaction(status -> userMapper.selectByEmail(email));
+            if (user != null) {
+                return user;
+            }
+        }
+        throw BusinessException.of(ResultCode.FAILED, "用户自动注册失败，请稍后再试");
+    }
 
-        } while (userMapper.selectByUsername(uniqueUsername) != null);
-
-        log.debug("用户名 {} 已存在，使用 {} 代替", baseUsername, uniqueUsername);
-        return uniqueUsername;
+    /**
+     * 比较令牌并删除在同一个脚本中完成，锁过期后被其他节点重新获取时不会误删
+     */
+    private void releaseLock(String lockKey, String lockToken) {
+        try {
+            redisTemplate.execute(LOCK_RELEASE_SCRIPT, List.of(lockKey), lockToken);
+        } catch (Exception e) {
+            log.warn("释放注册锁失败，将在{}秒后自动过期：key={}", REGISTRATION_LOCK_TTL.toSeconds(), lockKey);
+        }
     }
-}
\ No newline at end of file
+}
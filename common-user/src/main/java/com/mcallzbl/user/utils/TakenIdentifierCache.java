@@ -0,0 +1,85 @@
+package com.mcallzbl.user.utils;
+
+import com.mcallzbl.user.config.RegistrationConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已占用用户名/邮箱的本地缓存
+ * 只用于提前拒绝明显重复的注册，不作为唯一性依据；未命中时仍由数据库唯一约束判断
+ * 按LRU淘汰，条目过期后视为未命中
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Component
+@RequiredArgsConstructor
+public class TakenIdentifierCache {
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    private final RegistrationConfig registrationConfig;
+
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > registrationConfig.getTakenCacheSize();
+        }
+    };
+
+    public boolean isUsernameTaken(String username) {
+        return contains(USERNAME_PREFIX + normalize(username));
+    }
+
+    public boolean isEmailTaken(String email) {
+        return contains(EMAIL_PREFIX + normalize(email));
+    }
+
+    public void markUsernameTaken(String username) {
+        put(USERNAME_PREFIX + normalize(username));
+    }
+
+    public void markEmailTaken(String email) {
+        put(EMAIL_PREFIX + normalize(email));
+    }
+
+    private boolean contains(String key) {
+        if (!registrationConfig.isTakenCacheEnabled()) {
+            return false;
+        }
+        synchronized (entries) {
+            Long expiresAt = entries.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (System.nanoTime() - expiresAt >= 0) {
+                entries.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void put(String key) {
+        if (!registrationConfig.isTakenCacheEnabled()) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(registrationConfig.getTakenCacheTtlSeconds());
+        synchronized (entries) {
+            entries.put(key, expiresAt);
+        }
+    }
+
+    /**
+     * 数据库使用不区分大小写的排序规则，缓存键统一转小写
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mcallzbl.user.utils;
+
+import com.mcallzbl.user.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 用户名分配器
+ * 一次前缀查询取出已占用的用户名，在内存中按从小到大选择空闲后缀（base、base_1、base_2...），
+ * 再通过Redis SETNX短暂预留，避免并发注册选中同一个用户名
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameAllocator {
+    private static final String RESERVATION_PREFIX = "username_reservation:";
+    private static final Duration RESERVATION_TTL = Duration.ofSeconds(30);
+    private static final int MAX_RESERVATION_ATTEMPTS = 20;
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 分配唯一用户名
+     *
+     * @param baseUsername 基础用户名
+     * @return 数据库中不存在且已被当前调用预留的用户名
+     */
+    public String allocate(String baseUsername) {
+        String base = UsernameGenerator.generateUniqueUsername(baseUsername);
+        List<String> taken = userMapper.selectUsernamesWithPrefix(base, escapeLike(base) + "\\_%");
+        BitSet takenSuffixes = new BitSet();
+        for (String username : taken) {
+            int suffix = parseSuffix(base, username);
+            if (suffix >= 0) {
+                takenSuffixes.set(suffix);
+            }
+        }
+
+        // 后缀0表示基础用户名本身
+        int suffix = takenSuffixes.nextClearBit(0);
+        for (int attempt = 0; attempt < MAX_RESERVATION_ATTEMPTS; attempt++) {
+            String candidate = suffix == 0 ? base : base + "_" + suffix;
+            if (reserve(candidate)) {
+                if (suffix > 0) {
+                    log.debug("用户名 {} 已存在，使用 {} 代替", base, candidate);
+                }
+                return candidate;
+            }
+            suffix = takenSuffixes.nextClearBit(suffix + 1);
+        }
+
+        log.warn("用户名 {} 的候选均被并发预留，使用完全随机的用户名", base);
+        return allocate(UsernameGenerator.generateRandomUsername());
+    }
+
+    private boolean reserve(String username) {
+        Boolean reserved = redisTemplate.opsForValue().setIfAbsent(RESERVATION_PREFIX + username, "1", RESERVATION_TTL);
+        return Boolean.TRUE.equals(reserved);
+    }
+
+    /**
+     * 解析用户名相对基础用户名的数字后缀
+     *
+     * @return 基础用户名本身返回0，base_N返回N，其他（如 base_abc）返回-1
+     */
+    private static int parseSuffix(String base, String username) {
+        if (username.length() == base.length()) {
+            return username.equalsIgnoreCase(base) ? 0 : -1;
+        }
+        String suffix = username.substring(base.length() + 1);
+        if (suffix.isEmpty() || suffix.length() > 9 || suffix.charAt(0) == '0') {
+            return -1;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(suffix);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
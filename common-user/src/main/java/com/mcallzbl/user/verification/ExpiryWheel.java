@@ -0,0 +1,92 @@
+package com.mcallzbl.user.verification;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间轮
+ * 按到期时间把键放入对应的槽，每个刻度只检查一个槽，清理代价与到期数量成正比而不是与总数成正比
+ * 只负责回收内存，读取时仍需自行判断是否过期
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+class ExpiryWheel implements AutoCloseable {
+    private static final int SLOT_COUNT = 512;
+    private static final int MASK = SLOT_COUNT - 1;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Queue<Timeout>[] slots;
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * 已处理到的刻度，只在ticker线程中访问
+     */
+    private long processedTicks = 0;
+
+    @SuppressWarnings("unchecked")
+    ExpiryWheel(long tickMillis, String threadName) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("时间轮刻度必须大于0: " + tickMillis);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+        this.slots = new Queue[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 登记到期时间，到期后若map中该键对应的仍是value，则将其移除
+     */
+    void schedule(Map<String, ?> map, String key, Object value, long deadlineNanos) {
+        long tick = Math.max(1, (deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+        slots[(int) (tick & MASK)].add(new Timeout(map, key, value, deadlineNanos));
+    }
+
+    private void advance() {
+        long now = System.nanoTime();
+        long currentTick = (now - startNanos) / tickNanos;
+        // ticker落后时一次追上所有错过的刻度，最多转一圈
+        long from = Math.max(processedTicks + 1, currentTick - MASK);
+        for (long tick = from; tick <= currentTick; tick++) {
+            expire(slots[(int) (tick & MASK)], now);
+        }
+        processedTicks = currentTick;
+    }
+
+    private void expire(Queue<Timeout> slot, long now) {
+        // 只处理当前已有的元素，未到期的（还需再转若干圈）放回队尾
+        for (int i = slot.size(); i > 0; i--) {
+            Timeout timeout = slot.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (now - timeout.deadlineNanos() >= 0) {
+                timeout.map().remove(timeout.key(), timeout.value());
+            } else {
+                slot.add(timeout);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private record Timeout(Map<String, ?> map, String key, Object value, long deadlineNanos) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.mcallzbl.user.verification;
+
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+
+/**
+ * Redis与进程内结合的验证码存储
+ * Redis可用时以Redis为唯一数据源，进程内存储只在Redis不可用时兜底，保证验证码在多节点间只能使用一次
+ * <ul>
+ *     <li>签发：写入Redis，并清除本地在Redis故障期间签发的旧验证码；Redis不可用时只写本地</li>
+ *     <li>校验：在Redis中完成；Redis中不存在时，再检查本节点在Redis故障期间签发的验证码；Redis不可用时只校验本地</li>
+ * </ul>
+ * 本地验证码只存在于签发它的节点，不会与Redis中的验证码重复，因此不需要跨节点同步
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+public class HybridVerificationCodeStore implements VerificationCodeStore, DisposableBean {
+    private final RedisVerificationCodeStore redisStore;
+    private final InMemoryVerificationCodeStore localStore;
+
+    public HybridVerificationCodeStore(RedisVerificationCodeStore redisStore, InMemoryVerificationCodeStore localStore) {
+        this.redisStore = redisStore;
+        this.localStore = localStore;
+    }
+
+    @Override
+    public boolean issue(String email, VerificationEmailRequest.Purpose purpose, String code, Duration ttl, Duration sendInterval) {
+        boolean issued;
+        try {
+            issued = redisStore.issue(email, purpose, code, ttl, sendInterval);
+        } catch (Exception e) {
+            log.warn("Redis不可用，验证码只保存在本地：邮箱={}, 原因={}", email, e.getMessage());
+            return localStore.issue(email, purpose, code, ttl, sendInterval);
+        }
+        if (issued) {
+            // 新验证码以Redis为准，故障期间签发的本地验证码随之作废
+            localStore.revoke(email, purpose);
+        }
+        return issued;
+    }
+
+    @Override
+    public VerifyResult verify(String email, VerificationEmailRequest.Purpose purpose, String code, int maxAttempts) {
+        VerifyResult result;
+        try {
+            result = redisStore.verify(email, purpose, code, maxAttempts);
+        } catch (Exception e) {
+            log.warn("Redis不可用，只校验本地签发的验证码：邮箱={}, 原因={}", email, e.getMessage());
+            return localStore.verify(email, purpose, code, maxAttempts);
+        }
+        if (result == VerifyResult.NOT_FOUND) {
+            return localStore.verify(email, purpose, code, maxAttempts);
+        }
+        return result;
+    }
+
+    @Override
+    public void revoke(String email, VerificationEmailRequest.Purpose purpose) {
+        localStore.revoke(email, purpose);
+        revokeQuietly(() -> redisStore.revoke(email, purpose));
+    }
+
+    @Override
+    public void destroy() {
+        localStore.destroy();
+    }
+
+    private static void revokeQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("撤销Redis中的验证码失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mcallzbl.user.verification;
+
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内验证码存储
+ * 适用于单节点部署，校验不需要网络往返，也不依赖Redis可用
+ * <ul>
+ *     <li>原子性：签发和校验都在ConcurrentHashMap的compute中完成</li>
+ *     <li>过期：读取时判断是否过期，过期条目由时间轮回收</li>
+ *     <li>容量：验证码数量达到上限时拒绝签发新的验证码</li>
+ * </ul>
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+public class InMemoryVerificationCodeStore implements VerificationCodeStore, DisposableBean {
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CodeEntry> codes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> sendLimits = new ConcurrentHashMap<>();
+    private final ExpiryWheel expiryWheel;
+
+    public InMemoryVerificationCodeStore(int maxEntries, long tickMillis) {
+        this.maxEntries = maxEntries;
+        this.expiryWheel = new ExpiryWheel(tickMillis, "verification-code-expiry");
+    }
+
+    @Override
+    public boolean issue(String email, VerificationEmailRequest.Purpose purpose, String code, Duration ttl, Duration sendInterval) {
+        String key = key(email, purpose);
+        long now = System.nanoTime();
+        long limitDeadline = now + sendInterval.toNanos();
+
+        // 原子地占用发送限制，并发请求只有一个能成功
+        Long deadline = sendLimits.compute(key, (k, expiresAt) ->
+                expiresAt != null && expiresAt - now > 0 ? expiresAt : limitDeadline);
+        if (deadline != limitDeadline) {
+            return false;
+        }
+
+        if (codes.size() >= maxEntries && !codes.containsKey(key)) {
+            sendLimits.remove(key, limitDeadline);
+            log.warn("进程内验证码数量已达上限{}，拒绝签发：邮箱={}", maxEntries, email);
+            return false;
+        }
+
+        CodeEntry entry = new CodeEntry(code, now + ttl.toNanos());
+        codes.put(key, entry);
+        expiryWheel.schedule(codes, key, entry, entry.expiresAtNanos);
+        expiryWheel.schedule(sendLimits, key, limitDeadline, limitDeadline);
+        return true;
+    }
+
+    @Override
+    public VerifyResult verify(String email, VerificationEmailRequest.Purpose purpose, String code, int maxAttempts) {
+        long now = System.nanoTime();
+        VerifyResult[] result = {VerifyResult.NOT_FOUND};
+        codes.computeIfPresent(key(email, purpose), (k, entry) -> {
+            if (now - entry.expiresAtNanos >= 0) {
+                return null;
+            }
+            if (entry.code.equals(code)) {
+                result[0] = VerifyResult.VERIFIED;
+                return null;
+            }
+            entry.attempts++;
+            if (entry.attempts >= maxAttempts) {
+                result[0] = VerifyResult.TOO_MANY_ATTEMPTS;
+                return null;
+            }
+            result[0] = VerifyResult.MISMATCH;
+            return entry;
+        });
+        return result[0];
+    }
+
+    @Override
+    public void revoke(String email, VerificationEmailRequest.Purpose purpose) {
+        String key = key(email, purpose);
+        codes.remove(key);
+        sendLimits.remove(key);
+    }
+
+    @Override
+    public void destroy() {
+        expiryWheel.close();
+    }
+
+    private static String key(String email, VerificationEmailRequest.Purpose purpose) {
+        return VerificationKeyCodec.localKey(email, purpose);
+    }
+
+    /**
+     * 验证码条目，错误次数只在compute中修改
+     */
+    private static final class CodeEntry {
+        private final String code;
+        private final long expiresAtNanos;
+        private int attempts;
+
+        private CodeEntry(String code, long expiresAtNanos) {
+            this.code = code;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mcallzbl.user.verification;
+
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于Redis的验证码存储
+ * 签发和校验各自通过一个Lua脚本完成，多节点共享
+ * 键由 {@link VerificationKeyCodec} 编码为定长二进制，验证码由 {@link VerificationCodeSerializer} 压缩存储
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+@Slf4j
+public class RedisVerificationCodeStore implements VerificationCodeStore {
+
+    /**
+     * 签发验证码脚本：检查并设置发送限制、写入验证码、清空错误次数
+     */
+    private static final RedisScript<Long> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/verification_issue.lua"), Long.class);
+
+    /**
+     * 校验验证码脚本：比对成功即删除，失败累计错误次数
+     */
+    private static final RedisScript<Long> VERIFY_SCRIPT =
+            RedisScript.of(new ClassPathResource("lua/verification_verify.lua"), Long.class);
+
+    private static final long ISSUED = 1L;
+    private static final long VERIFIED = 1L;
+    private static final long MISMATCH = 0L;
+    private static final long TOO_MANY_ATTEMPTS = -2L;
+
+    private final RedisTemplate<byte[], byte[]> redisTemplate;
+
+    public RedisVerificationCodeStore(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<byte[], byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.byteArray());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.redisTemplate = template;
+    }
+
+    /**
+     * 预加载脚本，之后的调用直接使用EVALSHA
+     * 加载失败（如Redis暂不可用）不影响启动，首次调用时会自动回退到EVAL
+     */
+    public void preloadScripts() {
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                connection.scriptingCommands().scriptLoad(ISSUE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                connection.scriptingCommands().scriptLoad(VERIFY_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("预加载验证码脚本失败，将在首次调用时加载: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean issue(String email, VerificationEmailRequest.Purpose purpose, String code,
+                         Duration ttl, Duration sendInterval) {
+        Long result = redisTemplate.execute(ISSUE_SCRIPT,
+                List.of(VerificationKeyCodec.sendLimitKey(email, purpose),
+                        VerificationKeyCodec.codeKey(email, purpose),
+                        VerificationKeyCodec.attemptsKey(email, purpose)),
+                VerificationCodeSerializer.INSTANCE.serialize(code),
+                ascii(ttl.toMillis()),
+                ascii(sendInterval.toMillis()));
+        return result != null && result == ISSUED;
+    }
+
+    @Override
+    public VerifyResult verify(String email, VerificationEmailRequest.Purpose purpose, String code, int maxAttempts) {
+        Long result = redisTemplate.execute(VERIFY_SCRIPT,
+                List.of(VerificationKeyCodec.codeKey(email, purpose), VerificationKeyCodec.attemptsKey(email, purpose)),
+                VerificationCodeSerializer.INSTANCE.serialize(code),
+                ascii(maxAttempts));
+        if (result == null) {
+            return VerifyResult.NOT_FOUND;
+        }
+        if (result == VERIFIED) {
+            return VerifyResult.VERIFIED;
+        }
+        if (result == MISMATCH) {
+            return VerifyResult.MISMATCH;
+        }
+        return result == TOO_MANY_ATTEMPTS ? VerifyResult.TOO_MANY_ATTEMPTS : VerifyResult.NOT_FOUND;
+    }
+
+    @Override
+    public void revoke(String email, VerificationEmailRequest.Purpose purpose) {
+        redisTemplate.delete(List.of(VerificationKeyCodec.sendLimitKey(email, purpose),
+                VerificationKeyCodec.codeKey(email, purpose),
+                VerificationKeyCodec.attemptsKey(email, purpose)));
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
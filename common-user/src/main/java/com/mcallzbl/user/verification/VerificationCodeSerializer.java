@@ -0,0 +1,72 @@
+package com.mcallzbl.user.verification;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 验证码序列化器
+ * 纯数字验证码按压缩BCD编码，每字节两位，6位验证码只占3字节且保留前导零；奇数位时末尾补0xF
+ * 含非数字字符的输入以0xFF开头后接UTF-8字节，不会与任何数字验证码的编码相同
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+public class VerificationCodeSerializer implements RedisSerializer<String> {
+    public static final VerificationCodeSerializer INSTANCE = new VerificationCodeSerializer();
+
+    private static final byte RAW_MARKER = (byte) 0xFF;
+    private static final int PADDING = 0x0F;
+
+    @Override
+    public byte[] serialize(String code) throws SerializationException {
+        if (code == null) {
+            return null;
+        }
+        if (code.isEmpty() || !isDigits(code)) {
+            byte[] raw = code.getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[raw.length + 1];
+            bytes[0] = RAW_MARKER;
+            System.arraycopy(raw, 0, bytes, 1, raw.length);
+            return bytes;
+        }
+        byte[] bytes = new byte[(code.length() + 1) / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = code.charAt(2 * i) - '0';
+            int low = 2 * i + 1 < code.length() ? code.charAt(2 * i + 1) - '0' : PADDING;
+            bytes[i] = (byte) (high << 4 | low);
+        }
+        return bytes;
+    }
+
+    @Override
+    public String deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length > 0 && bytes[0] == RAW_MARKER) {
+            return new String(Arrays.copyOfRange(bytes, 1, bytes.length), StandardCharsets.UTF_8);
+        }
+        StringBuilder code = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            code.append((char) ('0' + (b >> 4 & 0x0F)));
+            int low = b & 0x0F;
+            if (low != PADDING) {
+                code.append((char) ('0' + low));
+            }
+        }
+        return code.toString();
+    }
+
+    private static boolean isDigits(String code) {
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mcallzbl.user.verification;
+
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+
+import java.time.Duration;
+
+/**
+ * 验证码存储
+ * 负责验证码的签发、校验与撤销，发送频率限制和错误次数统计也由存储实现保证原子性
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * 签发验证码
+     * 同一邮箱、同一目的在发送间隔内只能签发一次，签发时清空之前的错误次数
+     *
+     * @param email        邮箱
+     * @param purpose      验证目的
+     * @param code         验证码
+     * @param ttl          验证码有效期
+     * @param sendInterval 发送间隔
+     * @return 是否签发成功，发送过于频繁时返回false
+     */
+    boolean issue(String email, VerificationEmailRequest.Purpose purpose, String code, Duration ttl, Duration sendInterval);
+
+    /**
+     * 校验验证码，校验成功后验证码立即失效
+     *
+     * @param email       邮箱
+     * @param purpose     验证目的
+     * @param code        待校验的验证码
+     * @param maxAttempts 最大错误次数，达到后验证码作废
+     * @return 校验结果
+     */
+    VerifyResult verify(String email, VerificationEmailRequest.Purpose purpose, String code, int maxAttempts);
+
+    /**
+     * 撤销验证码及发送限制
+     *
+     * @param email   邮箱
+     * @param purpose 验证目的
+     */
+    void revoke(String email, VerificationEmailRequest.Purpose purpose);
+}
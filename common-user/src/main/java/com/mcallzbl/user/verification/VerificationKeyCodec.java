@@ -0,0 +1,84 @@
+package com.mcallzbl.user.verification;
+
+import com.mcallzbl.user.pojo.request.VerificationEmailRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 验证码相关Redis键编码
+ * 键格式为 2字节前缀 + 1字节目的编码 + 16字节邮箱摘要，共19字节，与邮箱长度无关
+ * <ul>
+ *     <li>前缀：vc 验证码，vl 发送限制，va 错误次数</li>
+ *     <li>目的编码：r 重置密码，c 修改邮箱，l 邮箱登录</li>
+ *     <li>邮箱摘要：小写邮箱的SHA-256前128位，键中不再出现明文邮箱</li>
+ * </ul>
+ * 进程内存储使用 {@link #localKey} ，与Redis键采用相同的邮箱规范化规则
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+public final class VerificationKeyCodec {
+    private static final byte[] CODE_PREFIX = {'v', 'c'};
+    private static final byte[] SEND_LIMIT_PREFIX = {'v', 'l'};
+    private static final byte[] ATTEMPTS_PREFIX = {'v', 'a'};
+    private static final int DIGEST_LENGTH = 16;
+
+    private VerificationKeyCodec() {
+    }
+
+    public static byte[] codeKey(String email, VerificationEmailRequest.Purpose purpose) {
+        return encode(CODE_PREFIX, email, purpose);
+    }
+
+    public static byte[] sendLimitKey(String email, VerificationEmailRequest.Purpose purpose) {
+        return encode(SEND_LIMIT_PREFIX, email, purpose);
+    }
+
+    public static byte[] attemptsKey(String email, VerificationEmailRequest.Purpose purpose) {
+        return encode(ATTEMPTS_PREFIX, email, purpose);
+    }
+
+    /**
+     * 进程内存储的键，邮箱规范化规则与Redis键一致
+     */
+    public static String localKey(String email, VerificationEmailRequest.Purpose purpose) {
+        return normalizeEmail(email) + ':' + (char) purposeCode(purpose);
+    }
+
+    /**
+     * 邮箱规范化：去除首尾空白并转为小写
+     */
+    public static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static byte[] encode(byte[] prefix, String email, VerificationEmailRequest.Purpose purpose) {
+        byte[] key = new byte[prefix.length + 1 + DIGEST_LENGTH];
+        System.arraycopy(prefix, 0, key, 0, prefix.length);
+        key[prefix.length] = purposeCode(purpose);
+        System.arraycopy(digest(email), 0, key, prefix.length + 1, DIGEST_LENGTH);
+        return key;
+    }
+
+    private static byte purposeCode(VerificationEmailRequest.Purpose purpose) {
+        return switch (purpose) {
+            case RESET_PASSWORD -> 'r';
+            case CHANGE_EMAIL -> 'c';
+            case LOGIN -> 'l';
+        };
+    }
+
+    private static byte[] digest(String email) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(normalizeEmail(email).getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(hash, DIGEST_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+}
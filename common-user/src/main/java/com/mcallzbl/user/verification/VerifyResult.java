@@ -0,0 +1,30 @@
+package com.mcallzbl.user.verification;
+
+/**
+ * 验证码校验结果
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+public enum VerifyResult {
+
+    /**
+     * 验证成功
+     */
+    VERIFIED,
+
+    /**
+     * 验证码错误
+     */
+    MISMATCH,
+
+    /**
+     * 验证码不存在或已过期
+     */
+    NOT_FOUND,
+
+    /**
+     * 错误次数过多，验证码已作废
+     */
+    TOO_MANY_ATTEMPTS
+}
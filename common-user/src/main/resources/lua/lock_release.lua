@@ -0,0 +1,8 @@
+-- 释放分布式锁：只有锁仍由自己持有时才删除，避免锁过期后误删其他节点重新获取的锁
+-- KEYS[1] 锁键
+-- ARGV[1] 获取锁时写入的令牌
+-- 返回 1 已释放，0 锁已不属于自己
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
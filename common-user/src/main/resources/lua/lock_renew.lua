@@ -0,0 +1,8 @@
+-- 续期分布式锁：只有锁仍由自己持有时才延长过期时间
+-- KEYS[1] 锁键
+-- ARGV[1] 获取锁时写入的令牌  ARGV[2] 新的过期时间（毫秒）
+-- 返回 1 续期成功，0 锁已不属于自己
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
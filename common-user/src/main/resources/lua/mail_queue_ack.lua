@@ -0,0 +1,6 @@
+-- 确认并删除已处理的消息，避免Stream无限增长并长期保留收件人和验证码
+-- KEYS[1] Stream键
+-- ARGV[1] 消费者组  ARGV[2] 消息ID
+-- 返回删除的消息数
+redis.call('XACK', KEYS[1], ARGV[1], ARGV[2])
+return redis.call('XDEL', KEYS[1], ARGV[2])
@@ -0,0 +1,13 @@
+-- 投递一条消息到Stream并按近似长度裁剪，可选地刷新整个Stream的过期时间
+-- KEYS[1] Stream键
+-- ARGV[1] 最大长度（MAXLEN ~）  ARGV[2] 过期时间（秒，0表示不设置）  ARGV[3..] 字段名与字段值交替
+-- 返回消息ID
+local fields = {}
+for i = 3, #ARGV do
+    fields[#fields + 1] = ARGV[i]
+end
+local id = redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[1], '*', unpack(fields))
+if tonumber(ARGV[2]) > 0 then
+    redis.call('EXPIRE', KEYS[1], ARGV[2])
+end
+return id
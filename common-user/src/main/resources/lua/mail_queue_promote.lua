@@ -0,0 +1,12 @@
+-- 将一条到期的重试消息移回待发送队列，ZREM与XADD在一次调用内原子完成，中途崩溃不会丢失消息
+-- KEYS[1] 重试队列（ZSET）  KEYS[2] 目标Stream
+-- ARGV[1] ZSET成员  ARGV[2] 最大长度（MAXLEN ~）  ARGV[3..] 字段名与字段值交替
+-- 返回消息ID，成员已被其他节点移走时返回false
+if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then
+    return false
+end
+local fields = {}
+for i = 3, #ARGV do
+    fields[#fields + 1] = ARGV[i]
+end
+return redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[2], '*', unpack(fields))
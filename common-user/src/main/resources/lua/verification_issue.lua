@@ -0,0 +1,11 @@
+-- 签发验证码：发送频率限制与验证码写入在一次调用内原子完成
+-- KEYS[1] 发送限制键  KEYS[2] 验证码键  KEYS[3] 错误次数键
+-- ARGV[1] 验证码  ARGV[2] 验证码有效期（毫秒）  ARGV[3] 发送间隔（毫秒）
+-- 返回 1 成功，0 发送过于频繁
+-- 发送限制只关心键是否存在，值固定为1（Redis共享小整数对象，不额外占用内存）
+if not redis.call('SET', KEYS[1], 1, 'NX', 'PX', ARGV[3]) then
+    return 0
+end
+redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2])
+redis.call('DEL', KEYS[3])
+return 1
@@ -0,0 +1,24 @@
+-- 校验验证码：比对、删除与错误次数统计在一次调用内原子完成
+-- KEYS[1] 验证码键  KEYS[2] 错误次数键
+-- ARGV[1] 待校验的验证码  ARGV[2] 最大错误次数
+-- 返回 1 验证成功，0 验证码错误，-1 验证码不存在或已过期，-2 错误次数过多（验证码已作废）
+local stored = redis.call('GET', KEYS[1])
+if not stored then
+    return -1
+end
+if stored == ARGV[1] then
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return 1
+end
+local attempts = redis.call('INCR', KEYS[2])
+if attempts == 1 then
+    local ttl = redis.call('PTTL', KEYS[1])
+    if ttl > 0 then
+        redis.call('PEXPIRE', KEYS[2], ttl)
+    end
+end
+if attempts >= tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return -2
+end
+return 0
@@ -0,0 +1,191 @@
+package com.mcallzbl.user.mail;
+
+import com.mcallzbl.user.config.MailPoolConfig;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PooledJavaMailSender 测试
+ * 使用一个按脚本应答的本地SMTP服务代替真实服务器
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+class PooledJavaMailSenderTest {
+
+    private ScriptedSmtpServer server;
+    private PooledJavaMailSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ScriptedSmtpServer();
+        sender = new PooledJavaMailSender(new MailPoolConfig());
+        sender.setHost(server.host());
+        sender.setPort(server.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sender.destroy();
+        server.close();
+    }
+
+    @Test
+    void reusesOneConnectionForABatch() throws MessagingException {
+        sender.send(message("a@example.com"), message("b@example.com"), message("c@example.com"));
+
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(server.delivered()).hasSize(3);
+    }
+
+    @Test
+    void reusesIdleConnectionAcrossSends() throws MessagingException {
+        sender.send(message("a@example.com"));
+        sender.send(message("b@example.com"));
+
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(server.delivered()).hasSize(2);
+    }
+
+    @Test
+    void reconnectsOnceWhenServerRepliesServiceNotAvailable() throws MessagingException {
+        server.rejectMailFromOnConnection(1);
+
+        sender.send(message("a@example.com"));
+
+        assertThat(server.connections()).isEqualTo(2);
+        assertThat(server.delivered()).hasSize(1);
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage mimeMessage = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject("test");
+        helper.setText("hello");
+        return mimeMessage;
+    }
+
+    /**
+     * 按脚本应答的SMTP服务，只实现客户端发送邮件用到的命令
+     * 指定的连接对MAIL FROM返回421，其余连接正常接收邮件
+     */
+    private static final class ScriptedSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> delivered = new CopyOnWriteArrayList<>();
+        private volatile int rejectingConnection = -1;
+
+        private ScriptedSmtpServer() throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "scripted-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        String host() {
+            return serverSocket.getInetAddress().getHostAddress();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        List<String> delivered() {
+            return delivered;
+        }
+
+        /**
+         * 第n个连接（从1开始）对MAIL FROM返回421
+         */
+        void rejectMailFromOnConnection(int connection) {
+            this.rejectingConnection = connection;
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    int connection = connections.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(socket, connection == rejectingConnection),
+                            "scripted-smtp-" + connection);
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket, boolean rejectMailFrom) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 OutputStream out = socket.getOutputStream()) {
+                reply(out, "220 localhost ESMTP");
+                boolean closing = false;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    if (closing) {
+                        reply(out, "421 Service not available, closing transmission channel");
+                    } else if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("MAIL FROM") && rejectMailFrom) {
+                        closing = true;
+                        reply(out, "421 Service not available, closing transmission channel");
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !".".equals(line)) {
+                            data.append(line).append("\r\n");
+                        }
+                        delivered.add(data.toString());
+                        reply(out, "250 OK");
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // 客户端断开连接
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mcallzbl.user.utils;
+
+import com.mcallzbl.user.mapper.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UsernameAllocator 测试
+ * Redis预留用一个内存中的集合模拟SETNX
+ *
+ * @author mcallzbl
+ * @version 1.0
+ * @since 2025/11/20
+ */
+class UsernameAllocatorTest {
+    private static final String RESERVATION_PREFIX = "username_reservation:";
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final Set<String> reservations = new HashSet<>();
+    private UsernameAllocator allocator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), eq("1"), any(Duration.class)))
+                .thenAnswer(invocation -> reservations.add(invocation.getArgument(0)));
+        allocator = new UsernameAllocator(userMapper, redisTemplate);
+    }
+
+    @Test
+    void usesBaseUsernameWhenFree() {
+        assertThat(allocator.allocate("alice")).isEqualTo("alice");
+        assertThat(reservations).containsExactly(RESERVATION_PREFIX + "alice");
+    }
+
+    @Test
+    void picksSmallestFreeSuffix() {
+        takenUsernames("alice", "alice", "alice_1", "alice_3");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice_2");
+    }
+
+    @Test
+    void picksNextSuffixAfterContiguousRange() {
+        takenUsernames("alice", "alice", "alice_1", "alice_2");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice_3");
+    }
+
+    @Test
+    void freeBaseIsPreferredOverSuffixes() {
+        takenUsernames("alice", "alice_1", "alice_2");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice");
+    }
+
+    @Test
+    void ignoresSuffixesThatAreNotCanonicalNumbers() {
+        takenUsernames("alice", "alice", "alice_01", "alice_x", "alice_", "alice_1a", "alice_99999999999");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice_1");
+    }
+
+    @Test
+    void matchesBaseCaseInsensitively() {
+        takenUsernames("alice", "ALICE", "Alice_1");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice_2");
+    }
+
+    @Test
+    void skipsCandidatesReservedByConcurrentRegistration() {
+        takenUsernames("alice", "alice", "alice_1");
+        reservations.add(RESERVATION_PREFIX + "alice_2");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice_3");
+    }
+
+    @Test
+    void skipsTakenSuffixesWhileRetryingReservations() {
+        takenUsernames("alice", "alice_1", "alice_3");
+        reservations.add(RESERVATION_PREFIX + "alice");
+        reservations.add(RESERVATION_PREFIX + "alice_2");
+
+        assertThat(allocator.allocate("alice")).isEqualTo("alice_4");
+    }
+
+    @Test
+    void fallsBackToRandomUsernameWhenAllCandidatesAreReserved() {
+        reservations.add(RESERVATION_PREFIX + "alice");
+        for (int i = 1; i < 20; i++) {
+            reservations.add(RESERVATION_PREFIX + "alice_" + i);
+        }
+
+        String username = allocator.allocate("alice");
+
+        assertThat(username).isNotEqualTo("alice").doesNotStartWith("alice_");
+        assertThat(reservations).contains(RESERVATION_PREFIX + username);
+    }
+
+    @Test
+    void escapesLikeWildcardsInBaseUsername() {
+        allocator.allocate("a_b%c");
+
+        verify(userMapper).selectUsernamesWithPrefix("a_b%c", "a\\_b\\%c\\_%");
+    }
+
+    private void takenUsernames(String base, String... usernames) {
+        when(userMapper.selectUsernamesWithPrefix(eq(base), anyString())).thenReturn(List.of(usernames));
+    }
+}
@@ -0,0 +1,57 @@
+package com.mcallzbl.user.verification;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * VerificationCodeSerializer 编码测试
+ *
+ * @author mcallzbl
+ * @since 2025-11-20
+ */
+class VerificationCodeSerializerTest {
+
+    private final VerificationCodeSerializer serializer = VerificationCodeSerializer.INSTANCE;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"123456", "000000", "012345", "999999", "0", "7", "12345", "1234567890123", "",
+            "ab12", "12a", "１２３", "验证码", "😀"})
+    void roundTrips(String code) {
+        assertThat(serializer.deserialize(serializer.serialize(code))).isEqualTo(code);
+    }
+
+    @Test
+    void packsTwoDigitsPerByte() {
+        assertThat(serializer.serialize("123456")).containsExactly(0x12, 0x34, 0x56);
+        assertThat(serializer.serialize("012345")).containsExactly(0x01, 0x23, 0x45);
+    }
+
+    @Test
+    void padsOddLengthWithF() {
+        assertThat(serializer.serialize("12345")).containsExactly(0x12, 0x34, 0x5F);
+        assertThat(serializer.serialize("0")).containsExactly(0x0F);
+    }
+
+    @Test
+    void prefixesNonDigitInputWithMarker() {
+        assertThat(serializer.serialize("ab")).containsExactly(0xFF, 'a', 'b');
+        assertThat(serializer.serialize("")).containsExactly(0xFF);
+    }
+
+    @Test
+    void nonDigitEncodingNeverCollidesWithDigits() {
+        // 数字编码的高半字节最大为9，首字节不可能是0xFF
+        assertThat(serializer.serialize("99")[0]).isNotEqualTo((byte) 0xFF);
+        assertThat(serializer.serialize("9")[0]).isNotEqualTo((byte) 0xFF);
+        assertThat(serializer.serialize("12")).isNotEqualTo(serializer.serialize("12a"));
+    }
+
+    @Test
+    void passesNullThrough() {
+        assertThat(serializer.serialize(null)).isNull();
+        assertThat(serializer.deserialize(null)).isNull();
+    }
+}
@@ -21,15 +21,17 @@ CREATE TABLE `user`
     `is_deleted`      TINYINT      NOT NULL DEFAULT 0 COMMENT '是否删除：0-正常，1-已删除',
     `deleted_time`    DATETIME              DEFAULT NULL COMMENT '删除时间，NULL表示未删除',
     `deleted_reason`  VARCHAR(500)          DEFAULT NULL COMMENT '删除原因',
+    `alive`           TINYINT AS (IF(`is_deleted` = 0, 1, NULL)) VIRTUAL COMMENT '未删除为1，已删除为NULL，用于唯一约束只作用于未删除用户',
     `created_time`    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_time`    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
-    UNIQUE KEY `uk_username_deleted` (`username`, `deleted_time`),
-    UNIQUE KEY `uk_email_deleted` (`email`, `deleted_time`),
+    UNIQUE KEY `uk_username_alive` (`username`, `alive`),
+    UNIQUE KEY `uk_email_alive` (`email`, `alive`),
     KEY `idx_phone` (`phone`),
     KEY `idx_status` (`status`),
     KEY `idx_created_time` (`created_time`),
-    KEY `idx_last_login_time` (`last_login_time`)
+    KEY `idx_last_login_time` (`last_login_time`),
+    KEY `idx_language` (`language`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
   COLLATE = utf8mb4_unicode_ci COMMENT ='用户信息表';
@@ -0,0 +1,6 @@
+-- 为按语言分批发送通知添加索引
+-- 批量通知按 language = ? AND id > ? ORDER BY id 键集分页读取用户，二级索引隐含主键，(language) 即可按ID顺序扫描。
+-- 未设置语言的用户通过 language IS NULL 单独读取，同样使用该索引。
+
+ALTER TABLE `user`
+    ADD INDEX `idx_language` (`language`);
@@ -0,0 +1,14 @@
+-- 修正用户名/邮箱唯一约束
+-- 原唯一键 (username, deleted_time)、(email, deleted_time) 中未删除用户的 deleted_time 为 NULL，
+-- MySQL唯一索引不比较NULL，因此无法阻止两个未删除用户使用相同的用户名或邮箱。
+-- 新增虚拟列 alive：未删除为1、已删除为NULL，唯一约束只作用于未删除用户，已删除用户的用户名和邮箱可以被重新注册。
+-- 执行前请先清理未删除用户中已存在的重复数据，否则添加唯一键会失败。
+
+ALTER TABLE `user`
+    ADD COLUMN `alive` TINYINT AS (IF(`is_deleted` = 0, 1, NULL)) VIRTUAL COMMENT '未删除为1，已删除为NULL，用于唯一约束只作用于未删除用户' AFTER `deleted_reason`;
+
+ALTER TABLE `user`
+    ADD UNIQUE KEY `uk_username_alive` (`username`, `alive`),
+    ADD UNIQUE KEY `uk_email_alive` (`email`, `alive`),
+    DROP INDEX `uk_username_deleted`,
+    DROP INDEX `uk_email_deleted`;